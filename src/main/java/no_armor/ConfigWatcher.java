@@ -0,0 +1,107 @@
+package no_armor;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config.yml and triggers an asynchronous reload once writes have
+ * settled. Configuration management tools often write a file in several
+ * steps (truncate, write, rename), so a reload only starts after the file
+ * has been quiet for the debounce period.
+ */
+public class ConfigWatcher {
+
+    private static final String FILE_NAME = "config.yml";
+
+    private final NoArmorPlugin plugin;
+    private final long debounceMillis;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(NoArmorPlugin plugin, long debounceMillis) {
+        this.plugin = plugin;
+        this.debounceMillis = Math.max(50L, debounceMillis);
+    }
+
+    public long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    /**
+     * Start watching the data folder on a daemon thread
+     */
+    public void start() throws IOException {
+        Path folder = plugin.getDataFolder().toPath();
+        watchService = FileSystems.getDefault().newWatchService();
+        folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::run, "NoArmor-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching. Safe to call more than once.
+     */
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+            watchService = null;
+        }
+        thread = null;
+    }
+
+    private void run() {
+        WatchService service = watchService;
+        long deadline = 0L;
+        try {
+            while (true) {
+                WatchKey key = deadline == 0L
+                        ? service.take()
+                        : service.poll(Math.max(1L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+
+                if (key != null) {
+                    if (touchesConfig(key)) {
+                        deadline = System.currentTimeMillis() + debounceMillis;
+                    }
+                    key.reset();
+                    continue;
+                }
+
+                if (System.currentTimeMillis() >= deadline) {
+                    // Retry after another quiet period if a reload is still running
+                    if (plugin.getPolicyReloader().isReloading()) {
+                        deadline = System.currentTimeMillis() + debounceMillis;
+                        continue;
+                    }
+                    deadline = 0L;
+                    plugin.getLogger().info("Detected a change to " + FILE_NAME + ", reloading");
+                    plugin.getPolicyReloader().reloadAsync();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private boolean touchesConfig(WatchKey key) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path path && path.getFileName().toString().equals(FILE_NAME)) {
+                touched = true;
+            }
+        }
+        return touched;
+    }
+}
@@ -0,0 +1,139 @@
+package no_armor;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * Adapts enforcement to server load. Every couple of seconds it reads the
+ * average tick time (MSPT) and switches between modes that stretch the
+ * safety sweep, shrink the per-tick batch and defer cosmetic overlay
+ * placement while the server is over budget. Modes step back down only once
+ * the tick time has dropped a margin below the threshold, so the governor
+ * does not flap around a boundary.
+ */
+public class EnforcementGovernor {
+
+    private static final long CHECK_PERIOD_TICKS = 40L;
+    private static final double RECOVERY_MARGIN_MSPT = 5.0;
+
+    /**
+     * How hard enforcement backs off in each mode
+     */
+    public enum Mode {
+        NORMAL(1, 1, false),
+        STRAINED(2, 2, false),
+        OVERLOADED(4, 4, true);
+
+        private final int sweepMultiplier;
+        private final int batchDivisor;
+        private final boolean deferOverlays;
+
+        Mode(int sweepMultiplier, int batchDivisor, boolean deferOverlays) {
+            this.sweepMultiplier = sweepMultiplier;
+            this.batchDivisor = batchDivisor;
+            this.deferOverlays = deferOverlays;
+        }
+
+        public int getSweepMultiplier() {
+            return sweepMultiplier;
+        }
+
+        public int getBatchDivisor() {
+            return batchDivisor;
+        }
+
+        /**
+         * Whether overlays for empty restricted slots should wait; items are
+         * still ejected from restricted slots in every mode
+         */
+        public boolean isDeferOverlays() {
+            return deferOverlays;
+        }
+    }
+
+    private final NoArmorPlugin plugin;
+    private volatile Mode mode = Mode.NORMAL;
+    private volatile double lastMspt = Double.NaN;
+    private double strainedMspt = 40.0;
+    private double overloadedMspt = 48.0;
+    private boolean enabled = true;
+    private ScheduledTask task;
+
+    public EnforcementGovernor(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Read the governor settings and start or stop the check
+     */
+    public void reloadSettings() {
+        enabled = plugin.getConfig().getBoolean("enforcement.governor.enabled", true);
+        strainedMspt = plugin.getConfig().getDouble("enforcement.governor.strained-mspt", 40.0);
+        overloadedMspt = Math.max(strainedMspt,
+                plugin.getConfig().getDouble("enforcement.governor.overloaded-mspt", 48.0));
+
+        if (enabled && task == null) {
+            task = plugin.getPluginScheduler().runGlobalTimer(this::check, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+        } else if (!enabled) {
+            stop();
+            setMode(Mode.NORMAL);
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * The tick time seen by the last check, NaN if unknown
+     */
+    public double getLastMspt() {
+        return lastMspt;
+    }
+
+    private void check() {
+        double mspt;
+        try {
+            mspt = plugin.getServer().getAverageTickTime();
+        } catch (UnsupportedOperationException e) {
+            // Folia has no single server tick; stay in the current mode
+            stop();
+            return;
+        }
+        lastMspt = mspt;
+        setMode(next(mode, mspt));
+    }
+
+    private Mode next(Mode current, double mspt) {
+        if (mspt >= overloadedMspt) {
+            return Mode.OVERLOADED;
+        }
+        if (mspt >= strainedMspt) {
+            // Coming down from overloaded needs some headroom first
+            return current == Mode.OVERLOADED && mspt > overloadedMspt - RECOVERY_MARGIN_MSPT
+                    ? Mode.OVERLOADED : Mode.STRAINED;
+        }
+        if (current != Mode.NORMAL && mspt > strainedMspt - RECOVERY_MARGIN_MSPT) {
+            return Mode.STRAINED;
+        }
+        return Mode.NORMAL;
+    }
+
+    private void setMode(Mode next) {
+        if (next == mode) {
+            return;
+        }
+        plugin.getLogger().info("Enforcement mode " + mode + " -> " + next
+                + (Double.isNaN(lastMspt) ? "" : String.format(" (%.1f mspt)", lastMspt)));
+        mode = next;
+        if (plugin.getSlotRestrictionListener() != null) {
+            plugin.getSlotRestrictionListener().applyGovernorMode(next);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package no_armor;
+
+import no_armor.policy.PolicySnapshot;
+import org.bukkit.Material;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes every item the running server knows about, with its current
+ * decision, so admins can look up material names without the plugin
+ * shipping (and parsing) a full list in config.yml.
+ */
+public final class ItemCatalog {
+
+    public static final String FILE_NAME = "item-catalog.yml";
+
+    private ItemCatalog() {
+    }
+
+    /**
+     * Build the catalog lines in allowed-items format
+     */
+    public static List<String> render(PolicySnapshot policy) {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Generated by /noarmor catalog. Not read by the plugin.");
+        lines.add("# Copy the entries you want to change into allowed-items in config.yml.");
+        lines.add("allowed-items:");
+        for (Material material : Material.values()) {
+            if (material.isLegacy() || material.isAir() || !material.isItem()) {
+                continue;
+            }
+            lines.add("  " + material.name().toLowerCase(Locale.ROOT) + ": " + policy.isAllowed(material));
+        }
+        return lines;
+    }
+
+    /**
+     * Write the catalog to a file, returning the number of items written
+     */
+    public static int write(Path file, PolicySnapshot policy) throws IOException {
+        List<String> lines = render(policy);
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        return lines.size() - 3;
+    }
+}
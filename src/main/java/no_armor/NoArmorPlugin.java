@@ -3,12 +3,27 @@ package no_armor;
 import no_armor.listeners.ArmorEquipListener;
 import no_armor.listeners.CraftingRestrictionListener;
 import no_armor.listeners.InventorySlotListener;
+import no_armor.listeners.PlayerStateListener;
+import no_armor.listeners.QuantityLimitListener;
+import no_armor.listeners.RegionListener;
 import no_armor.listeners.SlotRestrictionListener;
 import no_armor.listeners.ToolUseListener;
+import no_armor.player.PlayerStateManager;
+import no_armor.policy.ItemClassifier;
+import no_armor.policy.PolicySet;
+import no_armor.policy.PolicySnapshot;
+import org.bukkit.Material;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
 /**
  * NoArmor - A lightweight Paper plugin for restricting armor and tool usage.
  */
@@ -16,6 +31,17 @@ public class NoArmorPlugin extends JavaPlugin {
 
     private static NoArmorPlugin instance;
     private SlotRestrictionListener slotRestrictionListener;
+    private volatile PolicySet policySet;
+    private volatile FileConfiguration reloadedConfig;
+    private PolicyReloader policyReloader;
+    private ConfigWatcher configWatcher;
+    private ItemClassifier itemClassifier;
+    private final PluginScheduler scheduler = new PluginScheduler(this);
+    private final PlayerStateManager playerStates = new PlayerStateManager(this);
+    private final ScheduleService scheduleService = new ScheduleService(this);
+    private final EnforcementGovernor governor = new EnforcementGovernor(this);
+    private final QuarantineStore quarantineStore = new QuarantineStore(this);
+    private final OverlayService overlayService = new OverlayService(this);
 
     @Override
     public void onEnable() {
@@ -23,57 +49,295 @@ public class NoArmorPlugin extends JavaPlugin {
 
         // Save default config if not exists
         saveDefaultConfig();
+        itemClassifier = ItemClassifier.build();
+        compilePolicy();
+        overlayService.reloadSettings();
+        policyReloader = new PolicyReloader(this);
+        updateConfigWatcher();
 
         // Register event listeners
+        getServer().getPluginManager().registerEvents(new PlayerStateListener(this), this);
+        getServer().getPluginManager().registerEvents(new RegionListener(this), this);
         getServer().getPluginManager().registerEvents(new ArmorEquipListener(this), this);
         getServer().getPluginManager().registerEvents(new ToolUseListener(this), this);
         getServer().getPluginManager().registerEvents(new InventorySlotListener(this), this);
         getServer().getPluginManager().registerEvents(new CraftingRestrictionListener(this), this);
 
+        QuantityLimitListener quantityLimitListener = new QuantityLimitListener(this);
+        getServer().getPluginManager().registerEvents(quantityLimitListener, this);
+        quantityLimitListener.start();
+
         slotRestrictionListener = new SlotRestrictionListener(this);
         getServer().getPluginManager().registerEvents(slotRestrictionListener, this);
+        slotRestrictionListener.start();
+        governor.reloadSettings();
+        quarantineStore.start();
+
+        // Players already online (e.g. after a server reload) have no join event
+        playerStates.resolveAll();
+        for (Player player : getServer().getOnlinePlayers()) {
+            quarantineStore.load(player.getUniqueId());
+        }
 
-        getLogger().info("NoArmor plugin enabled! Restricting items as configured.");
+        getLogger().info("NoArmor plugin enabled! Restricting items as configured."
+                + (scheduler.isFolia() ? " Running on Folia region threads." : ""));
     }
 
     @Override
     public void onDisable() {
+        scheduleService.stop();
+        governor.stop();
+        if (slotRestrictionListener != null) {
+            slotRestrictionListener.stop();
+        }
+        scheduler.cancelAll();
+        quarantineStore.shutdown();
+        if (configWatcher != null) {
+            configWatcher.stop();
+            configWatcher = null;
+        }
         getLogger().info("NoArmor plugin disabled.");
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (command.getName().equalsIgnoreCase("noarmor")) {
+            // Claiming is for everyone, every other subcommand is admin only
+            if (args.length > 0 && args[0].equalsIgnoreCase("claim")) {
+                claimQuarantine(sender);
+                return true;
+            }
+
             if (!sender.hasPermission("noarmor.admin")) {
                 sender.sendMessage("§cYou don't have permission to use this command.");
                 return true;
             }
 
             if (args.length > 0 && args[0].equalsIgnoreCase("reload")) {
-                reloadConfig();
-                if (slotRestrictionListener != null) {
-                    slotRestrictionListener.loadRestrictedSlots();
-                }
-                sender.sendMessage("§aNoArmor configuration reloaded!");
+                sender.sendMessage("§7Reloading NoArmor configuration...");
+                policyReloader.reloadAsync().whenComplete((result, error) -> {
+                    if (error != null) {
+                        sender.sendMessage("§cReload failed, keeping the previous configuration: " + error.getMessage());
+                    } else {
+                        sender.sendMessage("§aNoArmor configuration reloaded!");
+                    }
+                });
+                return true;
+            }
+
+            if (args.length > 0 && args[0].equalsIgnoreCase("catalog")) {
+                writeCatalog(sender);
                 return true;
             }
 
+            sendEnforcementStatus(sender);
+            sendScheduleStatus(sender);
             sender.sendMessage("§6NoArmor Commands:");
             sender.sendMessage("§e/noarmor reload §7- Reload configuration");
+            sender.sendMessage("§e/noarmor catalog §7- Write every item to " + ItemCatalog.FILE_NAME);
+            sender.sendMessage("§e/noarmor claim §7- Take back items stored from restricted slots");
             return true;
         }
         return false;
     }
 
+    private void claimQuarantine(CommandSender sender) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("§cOnly players can claim items.");
+            return;
+        }
+        if (!sender.hasPermission("noarmor.claim")) {
+            sender.sendMessage("§cYou don't have permission to use this command.");
+            return;
+        }
+
+        int claimed = quarantineStore.claim(player);
+        int left = quarantineStore.count(player.getUniqueId());
+        if (claimed == 0 && left == 0) {
+            sender.sendMessage("§7You have no stored items.");
+        } else {
+            sender.sendMessage("§aReturned " + claimed + " stored item stacks."
+                    + (left > 0 ? " §e" + left + " did not fit, free some space and claim again." : ""));
+        }
+    }
+
+    private void sendEnforcementStatus(CommandSender sender) {
+        double mspt = governor.getLastMspt();
+        sender.sendMessage("§6Enforcement: §e" + governor.getMode()
+                + (Double.isNaN(mspt) ? "" : String.format(" §7(%.1f mspt)", mspt)));
+    }
+
+    private void sendScheduleStatus(CommandSender sender) {
+        ZonedDateTime next = scheduleService.getNextTransition();
+        if (next == null) {
+            return;
+        }
+        List<String> active = scheduleService.getActiveNames();
+        sender.sendMessage("§6Schedules: §7active: §e" + (active.isEmpty() ? "none" : String.join(", ", active)));
+        sender.sendMessage("§7Next change: §e" + next.format(DateTimeFormatter.ofPattern("EEE HH:mm z")));
+    }
+
+    private void writeCatalog(CommandSender sender) {
+        PolicySnapshot policy = getPolicy();
+        scheduler.runAsync(() -> {
+            String message;
+            try {
+                int count = ItemCatalog.write(getDataFolder().toPath().resolve(ItemCatalog.FILE_NAME), policy);
+                message = "§aWrote " + count + " items to " + ItemCatalog.FILE_NAME;
+            } catch (IOException e) {
+                getLogger().warning("Could not write " + ItemCatalog.FILE_NAME + ": " + e.getMessage());
+                message = "§cCould not write " + ItemCatalog.FILE_NAME + ": " + e.getMessage();
+            }
+            String result = message;
+            scheduler.runGlobal(() -> sender.sendMessage(result));
+        });
+    }
+
     public static NoArmorPlugin getInstance() {
         return instance;
     }
 
     /**
-     * Check if an item is allowed based on config
+     * Compile the item, slot, profile and world sections into fresh snapshots
+     */
+    private void compilePolicy() {
+        policySet = PolicySet.compile(getConfig(), getLogger());
+        scheduleService.setTimeline(policySet.getSchedule());
+        logPolicySummary();
+    }
+
+    /**
+     * Publish a configuration that was parsed and compiled off-thread.
+     * Must be called on the main thread.
+     */
+    void applyConfig(FileConfiguration config, PolicySet compiled) {
+        reloadedConfig = config;
+        policySet = compiled;
+        scheduleService.setTimeline(compiled.getSchedule());
+        overlayService.reloadSettings();
+        playerStates.resolveAll();
+        slotRestrictionListener.reloadSettings();
+        governor.reloadSettings();
+        logPolicySummary();
+        updateConfigWatcher();
+    }
+
+    /**
+     * Start, stop or restart the config.yml watcher to match auto-reload
+     */
+    private void updateConfigWatcher() {
+        boolean enabled = getConfig().getBoolean("auto-reload.enabled", false);
+        long debounce = getConfig().getLong("auto-reload.debounce-ms", 1000L);
+        if (configWatcher != null && (!enabled || configWatcher.getDebounceMillis() != Math.max(50L, debounce))) {
+            configWatcher.stop();
+            configWatcher = null;
+        }
+        if (enabled && configWatcher == null) {
+            ConfigWatcher watcher = new ConfigWatcher(this, debounce);
+            try {
+                watcher.start();
+                configWatcher = watcher;
+                getLogger().info("Watching config.yml for changes");
+            } catch (IOException e) {
+                getLogger().warning("Could not watch config.yml, auto-reload disabled: " + e.getMessage());
+            }
+        }
+    }
+
+    private void logPolicySummary() {
+        getLogger().info("Loaded " + Long.bitCount(policySet.getDefaults().getRestrictedSlots())
+                + " restricted inventory slots");
+    }
+
+    /**
+     * Returns the configuration published by the last asynchronous reload,
+     * or the one loaded at startup
+     */
+    @Override
+    public FileConfiguration getConfig() {
+        FileConfiguration config = reloadedConfig;
+        return config != null ? config : super.getConfig();
+    }
+
+    @Override
+    public void reloadConfig() {
+        super.reloadConfig();
+        reloadedConfig = null;
+    }
+
+    public PolicyReloader getPolicyReloader() {
+        return policyReloader;
+    }
+
+    /**
+     * Get the compiled global defaults and permission profiles
+     */
+    public PolicySet getPolicySet() {
+        return policySet;
+    }
+
+    /**
+     * Get the compiled global item policy. Listeners should prefer the
+     * per-player policy from {@link PlayerStateManager}.
+     */
+    public PolicySnapshot getPolicy() {
+        return policySet.getDefaults();
+    }
+
+    /**
+     * Get the cached per-player state
+     */
+    public PlayerStateManager getPlayerStates() {
+        return playerStates;
+    }
+
+    /**
+     * Get the region-aware task scheduler
+     */
+    public PluginScheduler getPluginScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Get the store for items ejected from restricted slots
+     */
+    public QuarantineStore getQuarantineStore() {
+        return quarantineStore;
+    }
+
+    /**
+     * Get the builder and detector of restricted-slot overlay panes
+     */
+    public OverlayService getOverlayService() {
+        return overlayService;
+    }
+
+    /**
+     * Get the load governor that throttles enforcement
+     */
+    public EnforcementGovernor getGovernor() {
+        return governor;
+    }
+
+    /**
+     * Get the tracker of active schedule windows
+     */
+    public ScheduleService getScheduleService() {
+        return scheduleService;
+    }
+
+    /**
+     * Get the item category table built from the material registry
+     */
+    public ItemClassifier getItemClassifier() {
+        return itemClassifier;
+    }
+
+    /**
+     * Check if an item is allowed based on the compiled policy
      */
-    public boolean isItemAllowed(String itemKey) {
-        return getConfig().getBoolean("allowed-items." + itemKey, true);
+    public boolean isItemAllowed(Material material) {
+        return getPolicy().isAllowed(material);
     }
 
     public SlotRestrictionListener getSlotRestrictionListener() {
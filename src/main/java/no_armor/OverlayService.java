@@ -0,0 +1,169 @@
+package no_armor;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the pane shown in restricted slots once per config load and tells
+ * overlays apart from real items. Overlays carry a persistent data marker,
+ * which is read through the item's data view without copying its meta.
+ * <p>
+ * In client mode the panes in armor and offhand slots are never written to
+ * the server inventory and are only sent to the player as equipment changes
+ * instead. Storage slots always hold real panes: an empty restricted storage
+ * slot would be filled by pickups and addItem as soon as enforcement cleared it.
+ */
+public class OverlayService {
+
+    // Lore markers written by older versions, only checked to clean those panes up
+    private static final List<String> LEGACY_MARKERS = List.of("NoArmor-SlotOverlay", "NoArmor-Overlay");
+
+    /** Slots shown client-side in client mode: armor (36-39) and offhand (40) */
+    public static final long CLIENT_SLOTS = 0x1FL << 36;
+
+    private final NoArmorPlugin plugin;
+    private final NamespacedKey markerKey;
+    // Never handed out directly, callers get clones
+    private volatile ItemStack prototype;
+    private volatile boolean clientMode;
+
+    public OverlayService(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+        this.markerKey = new NamespacedKey(plugin, "overlay");
+    }
+
+    /**
+     * Rebuild the overlay pane from the visuals section
+     */
+    public void reloadSettings() {
+        String materialName = plugin.getConfig().getString("visuals.blocked-slot-material", "GRAY_STAINED_GLASS_PANE");
+        Material material = Material.matchMaterial(materialName);
+        if (material == null || !material.isItem() || material.isAir()) {
+            plugin.getLogger().warning("Unknown visuals.blocked-slot-material '" + materialName
+                    + "', using GRAY_STAINED_GLASS_PANE");
+            material = Material.GRAY_STAINED_GLASS_PANE;
+        }
+
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            String name = plugin.getConfig().getString("visuals.blocked-slot-name", "&c&lRestricted");
+            meta.setDisplayName(ChatColor.translateAlternateColorCodes('&', name));
+            meta.setLore(List.of(ChatColor.GRAY + "This slot is restricted"));
+            meta.getPersistentDataContainer().set(markerKey, PersistentDataType.BYTE, (byte) 1);
+            item.setItemMeta(meta);
+        }
+        prototype = item;
+
+        String mode = plugin.getConfig().getString("visuals.overlay-mode", "item");
+        clientMode = mode.equalsIgnoreCase("client");
+        if (!clientMode && !mode.equalsIgnoreCase("item")) {
+            plugin.getLogger().warning("Unknown visuals.overlay-mode '" + mode + "', using item");
+        }
+    }
+
+    /**
+     * Check if equipment-slot overlays are shown to the client only, leaving
+     * those slots empty on the server
+     */
+    public boolean isClientMode() {
+        return clientMode;
+    }
+
+    /**
+     * Show overlay panes in restricted slots without touching the server
+     * inventory (bit n = slot n). Only the armor and offhand slots can be
+     * addressed this way; other bits are ignored. The client drops the panes
+     * whenever the server resyncs those slots, so callers send them again
+     * after each enforcement pass.
+     */
+    public void showClientSide(Player player, long slots) {
+        Map<EquipmentSlot, ItemStack> panes = new EnumMap<>(EquipmentSlot.class);
+        while (slots != 0) {
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+            EquipmentSlot equipment = equipmentSlotFor(slot);
+            if (equipment != null) {
+                panes.put(equipment, prototype);
+            }
+        }
+        if (!panes.isEmpty()) {
+            player.sendEquipmentChange(player, panes);
+        }
+    }
+
+    private static EquipmentSlot equipmentSlotFor(int slot) {
+        return switch (slot) {
+            case 36 -> EquipmentSlot.FEET;
+            case 37 -> EquipmentSlot.LEGS;
+            case 38 -> EquipmentSlot.CHEST;
+            case 39 -> EquipmentSlot.HEAD;
+            case 40 -> EquipmentSlot.OFF_HAND;
+            default -> null;
+        };
+    }
+
+    /**
+     * Get a fresh overlay pane to place in a slot
+     */
+    public ItemStack createOverlay() {
+        return prototype.clone();
+    }
+
+    /**
+     * Get the material overlays are currently made of
+     */
+    public Material getMaterial() {
+        return prototype.getType();
+    }
+
+    /**
+     * Check if an item is one of our overlay panes
+     */
+    public boolean isOverlay(ItemStack item) {
+        if (item == null || item.getType().isAir()) {
+            return false;
+        }
+        if (item.getPersistentDataContainer().has(markerKey)) {
+            return true;
+        }
+        return isLegacyOverlay(item);
+    }
+
+    /**
+     * Panes from before the marker key only carry a lore line. Only items of
+     * the default or current overlay material can be one, so everything else
+     * skips the meta copy.
+     */
+    private boolean isLegacyOverlay(ItemStack item) {
+        Material type = item.getType();
+        if (type != Material.GRAY_STAINED_GLASS_PANE && type != getMaterial()) {
+            return false;
+        }
+        if (!item.hasItemMeta()) {
+            return false;
+        }
+        List<String> lore = item.getItemMeta().getLore();
+        if (lore == null) {
+            return false;
+        }
+        for (String line : lore) {
+            for (String marker : LEGACY_MARKERS) {
+                if (line.contains(marker)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
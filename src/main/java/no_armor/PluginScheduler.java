@@ -0,0 +1,98 @@
+package no_armor;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.entity.Entity;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thin wrapper over Paper's region-aware schedulers. Work on a player runs
+ * on that player's entity scheduler, plugin-wide timers on the global region
+ * scheduler and file I/O on the async scheduler. On Paper these all end up
+ * on the main thread (or the async pool); on Folia player work runs on the
+ * region thread that owns the player.
+ */
+public final class PluginScheduler {
+
+    private final NoArmorPlugin plugin;
+    private final boolean folia;
+    // Entity schedulers can't cancel by plugin, so their timers are tracked here
+    private final Set<ScheduledTask> entityTimers = ConcurrentHashMap.newKeySet();
+
+    public PluginScheduler(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+        this.folia = detectFolia();
+    }
+
+    /**
+     * Whether the server runs regions on separate threads
+     */
+    public boolean isFolia() {
+        return folia;
+    }
+
+    /**
+     * Run on the thread owning an entity, next tick. Does nothing and
+     * returns null if the entity has been removed.
+     */
+    public ScheduledTask runFor(Entity entity, Runnable task) {
+        return entity.getScheduler().run(plugin, scheduled -> task.run(), null);
+    }
+
+    /**
+     * Repeat on the thread owning an entity until cancelled or the entity
+     * is removed. Returns null if the entity has already been removed.
+     */
+    public ScheduledTask runForTimer(Entity entity, Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask timer = entity.getScheduler().runAtFixedRate(plugin, scheduled -> task.run(), null,
+                Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        if (timer != null) {
+            entityTimers.removeIf(ScheduledTask::isCancelled);
+            entityTimers.add(timer);
+        }
+        return timer;
+    }
+
+    /**
+     * Run plugin-wide work (not tied to a player) next tick
+     */
+    public void runGlobal(Runnable task) {
+        plugin.getServer().getGlobalRegionScheduler().run(plugin, scheduled -> task.run());
+    }
+
+    /**
+     * Repeat plugin-wide work until cancelled
+     */
+    public ScheduledTask runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+                Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+    }
+
+    /**
+     * Run off the server threads, e.g. file I/O
+     */
+    public void runAsync(Runnable task) {
+        plugin.getServer().getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+    }
+
+    /**
+     * Cancel everything this plugin scheduled
+     */
+    public void cancelAll() {
+        plugin.getServer().getGlobalRegionScheduler().cancelTasks(plugin);
+        plugin.getServer().getAsyncScheduler().cancelTasks(plugin);
+        entityTimers.forEach(ScheduledTask::cancel);
+        entityTimers.clear();
+    }
+
+    // Not used for scheduling, only to pick the enforcement strategy
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package no_armor;
+
+import no_armor.policy.PolicyDiff;
+import no_armor.policy.PolicySet;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reloads config.yml off the main thread. The file is parsed, validated and
+ * compiled on a background thread; only the finished result is handed to the
+ * main thread, where it is published with a reference swap. Events see
+ * either the old or the new policy, never a half-built one, and a broken
+ * file leaves the previous policy in place.
+ */
+public class PolicyReloader {
+
+    private final NoArmorPlugin plugin;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    /**
+     * The outcome of a successful reload
+     */
+    public record Result(PolicySet previous, PolicySet current) {
+    }
+
+    public PolicyReloader(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isReloading() {
+        return reloading.get();
+    }
+
+    /**
+     * Start an asynchronous reload. The returned future completes on the main
+     * (global region) thread once the new policy is live, or exceptionally if the file could
+     * not be read or compiled (or another reload is still running).
+     */
+    public CompletableFuture<Result> reloadAsync() {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        if (!reloading.compareAndSet(false, true)) {
+            future.completeExceptionally(new IllegalStateException("A reload is already in progress"));
+            return future;
+        }
+
+        File file = new File(plugin.getDataFolder(), "config.yml");
+        plugin.getPluginScheduler().runAsync(() -> {
+            YamlConfiguration config;
+            PolicySet compiled;
+            try {
+                config = parse(file);
+                compiled = PolicySet.compile(config, plugin.getLogger());
+            } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+                reloading.set(false);
+                plugin.getLogger().warning("Reload failed, keeping the previous configuration: " + e.getMessage());
+                plugin.getPluginScheduler().runGlobal(() -> future.completeExceptionally(e));
+                return;
+            }
+
+            plugin.getPluginScheduler().runGlobal(() -> {
+                PolicySet previous = plugin.getPolicySet();
+                try {
+                    plugin.applyConfig(config, compiled);
+                } finally {
+                    reloading.set(false);
+                }
+                logDiff(previous, compiled);
+                future.complete(new Result(previous, compiled));
+            });
+        });
+        return future;
+    }
+
+    private void logDiff(PolicySet previous, PolicySet current) {
+        if (previous == null) {
+            return;
+        }
+        List<String> changes = PolicyDiff.describe(previous.getDefaults(), current.getDefaults());
+        if (changes.isEmpty()) {
+            plugin.getLogger().info("No changes to the default item and slot policy");
+        } else {
+            changes.forEach(plugin.getLogger()::info);
+        }
+        if (previous.getProfiles().size() != current.getProfiles().size()) {
+            plugin.getLogger().info("Profiles: " + previous.getProfiles().size()
+                    + " -> " + current.getProfiles().size());
+        }
+    }
+
+    private YamlConfiguration parse(File file) throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(file);
+        config.setDefaults(plugin.getConfig().getDefaults());
+        return config;
+    }
+}
@@ -0,0 +1,219 @@
+package no_armor;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds items ejected from restricted slots when eject-mode is quarantine,
+ * instead of dropping them into the world. Each player's items are kept in
+ * memory while they are online and stored in quarantine/&lt;uuid&gt;.bin using
+ * Paper's compact item serialization. Changes are collected and written in
+ * one batch off the main thread every few seconds.
+ */
+public class QuarantineStore {
+
+    private static final long FLUSH_PERIOD_TICKS = 100L;
+
+    private final NoArmorPlugin plugin;
+    private final Path folder;
+    private final Function<List<ItemStack>, byte[]> serializer;
+    private final Function<byte[], ItemStack[]> deserializer;
+    private final Map<UUID, List<ItemStack>> items = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // Players whose file is still being read; never flushed until it is merged
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+    private ScheduledTask task;
+
+    public QuarantineStore(NoArmorPlugin plugin) {
+        this(plugin, plugin.getDataFolder().toPath().resolve("quarantine"),
+                ItemStack::serializeItemsAsBytes, ItemStack::deserializeItemsFromBytes);
+    }
+
+    /**
+     * Item serialization needs a running server, so tests pass their own
+     */
+    QuarantineStore(NoArmorPlugin plugin, Path folder, Function<List<ItemStack>, byte[]> serializer,
+                    Function<byte[], ItemStack[]> deserializer) {
+        this.plugin = plugin;
+        this.folder = folder;
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+    }
+
+    public void start() {
+        if (task == null) {
+            task = plugin.getPluginScheduler().runGlobalTimer(this::flushAsync, FLUSH_PERIOD_TICKS, FLUSH_PERIOD_TICKS);
+        }
+    }
+
+    /**
+     * Stop the flush timer and write everything still pending, blocking
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        write(collectDirty());
+    }
+
+    /**
+     * Read a player's stored items in the background, e.g. at join
+     */
+    public void load(UUID uuid) {
+        // Still in memory from a recent session, which is newer than the file
+        if (items.containsKey(uuid)) {
+            return;
+        }
+        Path file = file(uuid);
+        loading.add(uuid);
+        plugin.getPluginScheduler().runAsync(() -> {
+            try {
+                if (!Files.exists(file)) {
+                    return;
+                }
+                ItemStack[] stored = deserializer.apply(Files.readAllBytes(file));
+                // Merge into the list add() and claim() may already hold, so
+                // items quarantined while loading stay after the stored ones
+                List<ItemStack> current = items.computeIfAbsent(uuid, key -> new ArrayList<>());
+                synchronized (current) {
+                    current.addAll(0, Arrays.asList(stored));
+                }
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().warning("Could not read quarantine file " + file.getFileName() + ": " + e.getMessage());
+            } finally {
+                loading.remove(uuid);
+            }
+            // Left before the file was read
+            if (plugin.getServer().getPlayer(uuid) == null) {
+                unload(uuid);
+            }
+        });
+    }
+
+    /**
+     * Forget a player's items once they are safely written, e.g. at quit
+     */
+    public void unload(UUID uuid) {
+        if (!dirty.contains(uuid) && !loading.contains(uuid)) {
+            items.remove(uuid);
+        }
+    }
+
+    public int count(UUID uuid) {
+        List<ItemStack> stored = items.get(uuid);
+        if (stored == null) {
+            return 0;
+        }
+        synchronized (stored) {
+            return stored.size();
+        }
+    }
+
+    /**
+     * Add ejected items to a player's store
+     */
+    public void add(UUID uuid, List<ItemStack> ejected) {
+        List<ItemStack> stored = items.computeIfAbsent(uuid, key -> new ArrayList<>());
+        synchronized (stored) {
+            stored.addAll(ejected);
+        }
+        dirty.add(uuid);
+    }
+
+    /**
+     * Move as many stored items as fit into the player's inventory. Must run
+     * on the thread that owns the player. Returns the number of stacks
+     * returned; whatever does not fit stays stored.
+     */
+    public int claim(Player player) {
+        List<ItemStack> stored = items.get(player.getUniqueId());
+        if (stored == null) {
+            return 0;
+        }
+
+        List<ItemStack> taken;
+        synchronized (stored) {
+            taken = new ArrayList<>(stored);
+            stored.clear();
+        }
+        if (taken.isEmpty()) {
+            return 0;
+        }
+
+        HashMap<Integer, ItemStack> leftover = player.getInventory().addItem(taken.toArray(new ItemStack[0]));
+        if (!leftover.isEmpty()) {
+            synchronized (stored) {
+                stored.addAll(0, leftover.values());
+            }
+        }
+        dirty.add(player.getUniqueId());
+        return taken.size() - leftover.size();
+    }
+
+    private void flushAsync() {
+        Map<UUID, byte[]> batch = collectDirty();
+        if (!batch.isEmpty()) {
+            plugin.getPluginScheduler().runAsync(() -> write(batch));
+        }
+    }
+
+    // Serialize on the calling thread so the async writer only handles bytes
+    private Map<UUID, byte[]> collectDirty() {
+        Map<UUID, byte[]> batch = new HashMap<>();
+        for (UUID uuid : List.copyOf(dirty)) {
+            // Writing now would replace the file before it has been read
+            if (loading.contains(uuid)) {
+                continue;
+            }
+            dirty.remove(uuid);
+            List<ItemStack> stored = items.getOrDefault(uuid, List.of());
+            List<ItemStack> copy;
+            synchronized (stored) {
+                copy = new ArrayList<>(stored);
+            }
+            batch.put(uuid, copy.isEmpty() ? null : serializer.apply(copy));
+            if (plugin.getServer().getPlayer(uuid) == null) {
+                items.remove(uuid);
+            }
+        }
+        return batch;
+    }
+
+    private void write(Map<UUID, byte[]> batch) {
+        for (Map.Entry<UUID, byte[]> entry : batch.entrySet()) {
+            Path file = file(entry.getKey());
+            try {
+                if (entry.getValue() == null) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                Files.createDirectories(folder);
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.write(temp, entry.getValue());
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not write quarantine file " + file.getFileName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private Path file(UUID uuid) {
+        return folder.resolve(uuid + ".bin");
+    }
+}
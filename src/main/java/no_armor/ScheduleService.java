@@ -0,0 +1,96 @@
+package no_armor;
+
+import no_armor.policy.ItemOverrides;
+import no_armor.policy.ScheduleTimeline;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Tracks which scheduled windows are active and swaps them in at each
+ * boundary of the compiled timeline. One timer compares the clock against
+ * the next transition; players are only re-resolved when a boundary passes.
+ */
+public class ScheduleService {
+
+    // Check once a second, transitions are minute-aligned
+    private static final long CHECK_PERIOD_TICKS = 20L;
+
+    private final NoArmorPlugin plugin;
+    private volatile State state = new State(ScheduleTimeline.NONE, -1, null);
+    private ScheduledTask task;
+
+    /**
+     * The timeline together with the current position in it, swapped as one
+     */
+    private record State(ScheduleTimeline timeline, int segment, ZonedDateTime nextTransition) {
+    }
+
+    public ScheduleService(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Switch to a newly compiled timeline. Does not re-resolve players; the
+     * caller does that after publishing the new policy.
+     */
+    public void setTimeline(ScheduleTimeline timeline) {
+        advance(timeline, ZonedDateTime.now());
+
+        if (timeline.isEmpty()) {
+            stop();
+        } else if (task == null) {
+            task = plugin.getPluginScheduler().runGlobalTimer(this::tick, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void tick() {
+        State current = state;
+        ZonedDateTime now = ZonedDateTime.now();
+        if (current.nextTransition() == null || now.isBefore(current.nextTransition())) {
+            return;
+        }
+
+        ItemOverrides before = getActiveOverrides();
+        advance(current.timeline(), now);
+        if (getActiveOverrides() != before) {
+            List<String> active = getActiveNames();
+            plugin.getLogger().info("Schedule changed, active windows: "
+                    + (active.isEmpty() ? "none" : String.join(", ", active)));
+            plugin.getPlayerStates().resolveAll();
+        }
+    }
+
+    private void advance(ScheduleTimeline timeline, ZonedDateTime now) {
+        int segment = timeline.segmentAt(now);
+        state = new State(timeline, segment, timeline.getSegmentEnd(segment, now));
+    }
+
+    /**
+     * The combined overrides of the windows active right now
+     */
+    public ItemOverrides getActiveOverrides() {
+        State current = state;
+        return current.timeline().getOverrides(current.segment());
+    }
+
+    public List<String> getActiveNames() {
+        State current = state;
+        return current.timeline().getActiveNames(current.segment());
+    }
+
+    /**
+     * When the active windows next change, or null without schedules
+     */
+    public ZonedDateTime getNextTransition() {
+        return state.nextTransition();
+    }
+}
@@ -1,6 +1,7 @@
 package no_armor.listeners;
 
 import no_armor.NoArmorPlugin;
+import no_armor.player.PlayerState;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -35,7 +36,8 @@ public class ArmorEquipListener implements Listener {
         }
 
         // Bypass permission check
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
@@ -43,7 +45,7 @@ public class ArmorEquipListener implements Listener {
         if (event.getSlotType() == InventoryType.SlotType.ARMOR) {
             ItemStack cursor = event.getCursor();
             if (cursor != null && !cursor.getType().isAir()) {
-                if (!isArmorAllowed(cursor.getType())) {
+                if (!state.getPolicy().isAllowed(cursor)) {
                     event.setCancelled(true);
                     sendBlockedMessage(player);
                     return;
@@ -54,7 +56,7 @@ public class ArmorEquipListener implements Listener {
         // Check shift-click equip
         if (event.isShiftClick() && event.getCurrentItem() != null) {
             ItemStack item = event.getCurrentItem();
-            if (isArmor(item.getType()) && !isArmorAllowed(item.getType())) {
+            if (isArmor(item.getType()) && !state.getPolicy().isAllowed(item)) {
                 event.setCancelled(true);
                 sendBlockedMessage(player);
             }
@@ -64,7 +66,7 @@ public class ArmorEquipListener implements Listener {
         if (event.getClick().name().contains("NUMBER_KEY") &&
                 event.getSlotType() == InventoryType.SlotType.ARMOR) {
             ItemStack hotbarItem = player.getInventory().getItem(event.getHotbarButton());
-            if (hotbarItem != null && !isArmorAllowed(hotbarItem.getType())) {
+            if (hotbarItem != null && !state.getPolicy().isAllowed(hotbarItem)) {
                 event.setCancelled(true);
                 sendBlockedMessage(player);
             }
@@ -80,7 +82,8 @@ public class ArmorEquipListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
@@ -88,7 +91,7 @@ public class ArmorEquipListener implements Listener {
         for (int slot : event.getRawSlots()) {
             if (slot >= 5 && slot <= 8) {
                 ItemStack item = event.getOldCursor();
-                if (item != null && !isArmorAllowed(item.getType())) {
+                if (item != null && !state.getPolicy().isAllowed(item)) {
                     event.setCancelled(true);
                     sendBlockedMessage(player);
                     return;
@@ -104,7 +107,8 @@ public class ArmorEquipListener implements Listener {
     public void onPlayerInteract(PlayerInteractEvent event) {
         Player player = event.getPlayer();
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
@@ -113,7 +117,7 @@ public class ArmorEquipListener implements Listener {
             return;
         }
 
-        if (isArmor(item.getType()) && !isArmorAllowed(item.getType())) {
+        if (isArmor(item.getType()) && !state.getPolicy().isAllowed(item)) {
             if (event.getAction().name().contains("RIGHT_CLICK")) {
                 event.setCancelled(true);
                 sendBlockedMessage(player);
@@ -130,31 +134,19 @@ public class ArmorEquipListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
-        if (!isArmorAllowed(event.getItem().getType())) {
+        if (!state.getPolicy().isAllowed(event.getItem())) {
             event.setCancelled(true);
             sendBlockedMessage(player);
         }
     }
 
     private boolean isArmor(Material material) {
-        String name = material.name().toLowerCase();
-        return name.contains("helmet") || name.contains("chestplate") ||
-                name.contains("leggings") || name.contains("boots") ||
-                name.equals("elytra") || name.contains("_head") ||
-                name.contains("_skull") || name.equals("carved_pumpkin") ||
-                name.equals("turtle_helmet");
-    }
-
-    private boolean isArmorAllowed(Material material) {
-        if (material == null || material.isAir()) {
-            return true;
-        }
-        String key = material.name().toLowerCase();
-        return plugin.isItemAllowed(key);
+        return plugin.getItemClassifier().isArmor(material);
     }
 
     private void sendBlockedMessage(Player player) {
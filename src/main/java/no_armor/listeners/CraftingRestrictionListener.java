@@ -1,6 +1,7 @@
 package no_armor.listeners;
 
 import no_armor.NoArmorPlugin;
+import no_armor.player.PlayerState;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Item;
@@ -31,14 +32,14 @@ public class CraftingRestrictionListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPrepareCraft(PrepareItemCraftEvent event) {
         if (event.getView().getPlayer() instanceof Player player) {
-            if (player.hasPermission("noarmor.bypass")) {
+            PlayerState state = plugin.getPlayerStates().get(player);
+            if (state.isBypass()) {
                 return;
             }
 
             ItemStack result = event.getInventory().getResult();
             if (result != null && !result.getType().isAir()) {
-                String itemKey = result.getType().name().toLowerCase();
-                if (!plugin.isItemAllowed(itemKey)) {
+                if (!state.getPolicy().isAllowed(result)) {
                     // Clear the result so they can't craft it
                     event.getInventory().setResult(null);
                 }
@@ -55,14 +56,14 @@ public class CraftingRestrictionListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
         ItemStack result = event.getCurrentItem();
         if (result != null && !result.getType().isAir()) {
-            String itemKey = result.getType().name().toLowerCase();
-            if (!plugin.isItemAllowed(itemKey)) {
+            if (!state.getPolicy().isAllowed(result)) {
                 event.setCancelled(true);
                 player.sendMessage(ChatColor.translateAlternateColorCodes('&',
                         plugin.getConfig().getString("messages.craft-blocked",
@@ -80,14 +81,14 @@ public class CraftingRestrictionListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
         ItemStack item = event.getItem().getItemStack();
-        String itemKey = item.getType().name().toLowerCase();
 
-        if (!plugin.isItemAllowed(itemKey)) {
+        if (!state.getPolicy().isAllowed(item)) {
             event.setCancelled(true);
             // Optionally notify - but this can be spammy
             // player.sendMessage(ChatColor.RED + "You cannot pick up this item!");
@@ -1,8 +1,9 @@
 package no_armor.listeners;
 
 import no_armor.NoArmorPlugin;
+import no_armor.OverlayService;
+import no_armor.policy.PolicySnapshot;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -13,14 +14,6 @@ import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.scheduler.BukkitRunnable;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 
 /**
  * Handles visual feedback for restricted armor slots by showing grey glass
@@ -29,7 +22,7 @@ import java.util.UUID;
 public class InventorySlotListener implements Listener {
 
     private final NoArmorPlugin plugin;
-    private final Map<UUID, ItemStack[]> savedArmorSlots = new HashMap<>();
+    private final OverlayService overlays;
 
     // Armor slot indices in player inventory
     private static final int HELMET_SLOT = 39;
@@ -39,6 +32,7 @@ public class InventorySlotListener implements Listener {
 
     public InventorySlotListener(NoArmorPlugin plugin) {
         this.plugin = plugin;
+        this.overlays = plugin.getOverlayService();
     }
 
     /**
@@ -51,19 +45,21 @@ public class InventorySlotListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        if (plugin.getPlayerStates().isBypassing(player)) {
+            return;
+        }
+
+        // Cosmetic only, skip while the server is over its tick budget
+        if (plugin.getGovernor().getMode().isDeferOverlays()) {
             return;
         }
 
         // Delay to allow inventory to fully open
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline())
-                    return;
-                applyRestrictedOverlays(player);
-            }
-        }.runTaskLater(plugin, 1L);
+        plugin.getPluginScheduler().runFor(player, () -> {
+            if (!player.isOnline())
+                return;
+            applyRestrictedOverlays(player);
+        });
     }
 
     /**
@@ -87,14 +83,14 @@ public class InventorySlotListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        if (plugin.getPlayerStates().isBypassing(player)) {
             return;
         }
 
         // Check if clicking on an overlay item
         if (event.getSlotType() == InventoryType.SlotType.ARMOR) {
             ItemStack clicked = event.getCurrentItem();
-            if (clicked != null && isOverlayItem(clicked)) {
+            if (clicked != null && overlays.isOverlay(clicked)) {
                 event.setCancelled(true);
 
                 // Check what type of armor slot this is
@@ -114,95 +110,51 @@ public class InventorySlotListener implements Listener {
      */
     private void applyRestrictedOverlays(Player player) {
         PlayerInventory inv = player.getInventory();
+        PolicySnapshot policy = plugin.getPlayerStates().get(player).getPolicy();
 
-        // Save current armor state
-        ItemStack[] savedArmor = new ItemStack[4];
-        savedArmor[0] = inv.getHelmet() != null ? inv.getHelmet().clone() : null;
-        savedArmor[1] = inv.getChestplate() != null ? inv.getChestplate().clone() : null;
-        savedArmor[2] = inv.getLeggings() != null ? inv.getLeggings().clone() : null;
-        savedArmor[3] = inv.getBoots() != null ? inv.getBoots().clone() : null;
-        savedArmorSlots.put(player.getUniqueId(), savedArmor);
-
-        // Check each armor slot and apply overlay if all armor of that type is
-        // restricted
-        if (inv.getHelmet() == null && areAllHelmetsRestricted()) {
-            inv.setHelmet(createOverlayItem());
-        }
-        if (inv.getChestplate() == null && areAllChestplatesRestricted()) {
-            inv.setChestplate(createOverlayItem());
-        }
-        if (inv.getLeggings() == null && areAllLeggingsRestricted()) {
-            inv.setLeggings(createOverlayItem());
-        }
-        if (inv.getBoots() == null && areAllBootsRestricted()) {
-            inv.setBoots(createOverlayItem());
+        // Bit n = armor slot BOOTS_SLOT + n where nothing wearable is allowed
+        int restricted = policy.getRestrictedArmorSlots(plugin.getItemClassifier());
+        if (restricted == 0) {
+            return;
         }
-    }
-
-    /**
-     * Remove overlay items from armor slots
-     */
-    private void removeRestrictedOverlays(Player player) {
-        PlayerInventory inv = player.getInventory();
 
-        // Remove overlay items
-        if (inv.getHelmet() != null && isOverlayItem(inv.getHelmet())) {
-            inv.setHelmet(null);
-        }
-        if (inv.getChestplate() != null && isOverlayItem(inv.getChestplate())) {
-            inv.setChestplate(null);
-        }
-        if (inv.getLeggings() != null && isOverlayItem(inv.getLeggings())) {
-            inv.setLeggings(null);
+        ItemStack[] armor = inv.getArmorContents();
+        int empty = 0;
+        for (int i = 0; i < armor.length; i++) {
+            if (armor[i] == null || armor[i].getType().isAir()) {
+                empty |= 1 << i;
+            }
         }
-        if (inv.getBoots() != null && isOverlayItem(inv.getBoots())) {
-            inv.setBoots(null);
+        int shown = restricted & empty;
+        if (shown == 0) {
+            return;
         }
 
-        savedArmorSlots.remove(player.getUniqueId());
-    }
-
-    /**
-     * Create the grey glass pane overlay item
-     */
-    private ItemStack createOverlayItem() {
-        String materialName = plugin.getConfig().getString("visuals.blocked-slot-material", "GRAY_STAINED_GLASS_PANE");
-        Material material;
-        try {
-            material = Material.valueOf(materialName.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            material = Material.GRAY_STAINED_GLASS_PANE;
+        if (overlays.isClientMode()) {
+            overlays.showClientSide(player, (long) shown << BOOTS_SLOT);
+            return;
         }
 
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        if (meta != null) {
-            String name = plugin.getConfig().getString("visuals.blocked-slot-name", "&c&lRestricted");
-            meta.setDisplayName(ChatColor.translateAlternateColorCodes('&', name));
-
-            List<String> lore = new ArrayList<>();
-            lore.add(ChatColor.GRAY + "This armor slot is restricted");
-            lore.add(ChatColor.DARK_GRAY + "NoArmor-Overlay");
-            meta.setLore(lore);
-
-            item.setItemMeta(meta);
+        for (int i = 0; i < armor.length; i++) {
+            if ((shown & (1 << i)) != 0) {
+                inv.setItem(BOOTS_SLOT + i, overlays.createOverlay());
+            }
         }
-        return item;
     }
 
     /**
-     * Check if an item is our overlay item
+     * Remove overlay items from armor slots. Slots restricted by the slot
+     * policy keep their panes, since SlotRestrictionListener owns those and
+     * won't put them back until its next pass.
      */
-    private boolean isOverlayItem(ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
-            return false;
-        }
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null || !meta.hasLore()) {
-            return false;
+    private void removeRestrictedOverlays(Player player) {
+        PlayerInventory inv = player.getInventory();
+        PolicySnapshot policy = plugin.getPlayerStates().get(player).getPolicy();
+        for (int slot = BOOTS_SLOT; slot <= HELMET_SLOT; slot++) {
+            if (!policy.isSlotRestricted(slot) && overlays.isOverlay(inv.getItem(slot))) {
+                inv.setItem(slot, null);
+            }
         }
-        List<String> lore = meta.getLore();
-        return lore != null && lore.stream().anyMatch(line -> line.contains("NoArmor-Overlay"));
     }
 
     private String getArmorTypeForSlot(int slot) {
@@ -214,48 +166,4 @@ public class InventorySlotListener implements Listener {
             default -> null;
         };
     }
-
-    private boolean areAllHelmetsRestricted() {
-        String[] helmets = { "leather_helmet", "chainmail_helmet", "iron_helmet",
-                "golden_helmet", "diamond_helmet", "netherite_helmet", "turtle_helmet" };
-        for (String helmet : helmets) {
-            if (plugin.isItemAllowed(helmet)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private boolean areAllChestplatesRestricted() {
-        String[] chestplates = { "leather_chestplate", "chainmail_chestplate", "iron_chestplate",
-                "golden_chestplate", "diamond_chestplate", "netherite_chestplate", "elytra" };
-        for (String chestplate : chestplates) {
-            if (plugin.isItemAllowed(chestplate)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private boolean areAllLeggingsRestricted() {
-        String[] leggings = { "leather_leggings", "chainmail_leggings", "iron_leggings",
-                "golden_leggings", "diamond_leggings", "netherite_leggings" };
-        for (String legging : leggings) {
-            if (plugin.isItemAllowed(legging)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private boolean areAllBootsRestricted() {
-        String[] boots = { "leather_boots", "chainmail_boots", "iron_boots",
-                "golden_boots", "diamond_boots", "netherite_boots" };
-        for (String boot : boots) {
-            if (plugin.isItemAllowed(boot)) {
-                return false;
-            }
-        }
-        return true;
-    }
 }
@@ -0,0 +1,83 @@
+package no_armor.listeners;
+
+import no_armor.NoArmorPlugin;
+import no_armor.player.PlayerStateManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps the cached per-player state in sync with permission changes.
+ */
+public class PlayerStateListener implements Listener {
+
+    private final NoArmorPlugin plugin;
+    private final PlayerStateManager states;
+
+    public PlayerStateListener(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+        this.states = plugin.getPlayerStates();
+    }
+
+    /**
+     * Resolve state before any other listener sees the player
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        states.resolve(event.getPlayer());
+        plugin.getQuarantineStore().load(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Drop state once the quit has been fully handled
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        plugin.getPluginScheduler().runGlobal(() -> {
+            if (!player.isOnline()) {
+                states.remove(player.getUniqueId());
+                plugin.getQuarantineStore().unload(player.getUniqueId());
+            }
+        });
+    }
+
+    /**
+     * Permission plugins resend the command tree after recalculating a
+     * player's permissions, so this doubles as a recalculation hook
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommandSend(PlayerCommandSendEvent event) {
+        states.resolve(event.getPlayer());
+    }
+
+    /**
+     * Gamemode-scoped permissions apply after the change, so resolve next tick
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        resolveNextTick(event.getPlayer());
+    }
+
+    /**
+     * World-scoped permissions change with the world
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        states.resolve(event.getPlayer());
+    }
+
+    private void resolveNextTick(Player player) {
+        plugin.getPluginScheduler().runFor(player, () -> {
+            if (player.isOnline()) {
+                states.resolve(player);
+            }
+        });
+    }
+}
@@ -0,0 +1,268 @@
+package no_armor.listeners;
+
+import com.destroystokyo.paper.event.player.PlayerLaunchProjectileEvent;
+import no_armor.NoArmorPlugin;
+import no_armor.player.PlayerState;
+import no_armor.policy.QuantityLimits;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.EntityResurrectEvent;
+import org.bukkit.event.inventory.CraftItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.Locale;
+
+/**
+ * Enforces quantity-limits with per-player counters. Pickups and drops
+ * update the counters exactly; inventory clicks, crafts and item use only
+ * schedule a recount for the next tick when a limited material is involved,
+ * and a slow periodic recount catches anything missed.
+ */
+public class QuantityLimitListener implements Listener {
+
+    // Full consistency recount of every online player, once a minute
+    private static final long CHECK_PERIOD_TICKS = 20L * 60L;
+
+    private final NoArmorPlugin plugin;
+
+    public QuantityLimitListener(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the periodic consistency check
+     */
+    public void start() {
+        plugin.getPluginScheduler().runGlobalTimer(() -> {
+            if (limits().isEmpty()) {
+                return;
+            }
+            // Each recount runs on the thread that owns the player
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                plugin.getPluginScheduler().runFor(player, () -> {
+                    PlayerState state = plugin.getPlayerStates().get(player);
+                    if (!state.isBypass()) {
+                        recountAndTrim(player, state);
+                    }
+                });
+            }
+        }, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+    }
+
+    /**
+     * Refuse pickups that would go over a limit
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onItemPickup(EntityPickupItemEvent event) {
+        if (!(event.getEntity() instanceof Player player)) {
+            return;
+        }
+
+        int index = limits().indexOf(event.getItem().getItemStack().getType());
+        if (index < 0) {
+            return;
+        }
+
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
+            return;
+        }
+
+        // Not notified, pickups fire every tick while standing on the item
+        int amount = event.getItem().getItemStack().getAmount();
+        if (state.getItemCount(index) + amount > limits().getLimit(index)) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Count what was actually picked up
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemPickupMonitor(EntityPickupItemEvent event) {
+        if (!(event.getEntity() instanceof Player player)) {
+            return;
+        }
+
+        ItemStack item = event.getItem().getItemStack();
+        int index = limits().indexOf(item.getType());
+        if (index >= 0) {
+            plugin.getPlayerStates().get(player).addItemCount(index, item.getAmount() - event.getRemaining());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemDrop(PlayerDropItemEvent event) {
+        ItemStack item = event.getItemDrop().getItemStack();
+        int index = limits().indexOf(item.getType());
+        if (index >= 0) {
+            plugin.getPlayerStates().get(event.getPlayer()).addItemCount(index, -item.getAmount());
+        }
+    }
+
+    /**
+     * Refuse crafts that would go over a limit. Shift-click crafts produce an
+     * unknown number of items, so those are recounted and trimmed instead.
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onCraftItem(CraftItemEvent event) {
+        if (!(event.getWhoClicked() instanceof Player player)) {
+            return;
+        }
+
+        ItemStack result = event.getRecipe().getResult();
+        int index = limits().indexOf(result.getType());
+        if (index < 0) {
+            return;
+        }
+
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
+            return;
+        }
+
+        if (state.getItemCount(index) + result.getAmount() > limits().getLimit(index)) {
+            event.setCancelled(true);
+            sendLimitMessage(player, index);
+            return;
+        }
+        scheduleRecount(player, state);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player player)) {
+            return;
+        }
+
+        boolean involved = isLimited(event.getCurrentItem()) || isLimited(event.getCursor());
+        if (!involved && event.getHotbarButton() >= 0) {
+            involved = isLimited(player.getInventory().getItem(event.getHotbarButton()));
+        }
+        if (involved) {
+            scheduleRecount(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player && isLimited(event.getOldCursor())) {
+            scheduleRecount(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemConsume(PlayerItemConsumeEvent event) {
+        if (isLimited(event.getItem())) {
+            scheduleRecount(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onProjectileLaunch(PlayerLaunchProjectileEvent event) {
+        if (isLimited(event.getItemStack())) {
+            scheduleRecount(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (isLimited(event.getItemInHand())) {
+            scheduleRecount(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onResurrect(EntityResurrectEvent event) {
+        if (event.getEntity() instanceof Player player && !limits().isEmpty()) {
+            scheduleRecount(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        if (!limits().isEmpty()) {
+            scheduleRecount(event.getPlayer());
+        }
+    }
+
+    private QuantityLimits limits() {
+        return plugin.getPolicySet().getQuantityLimits();
+    }
+
+    private boolean isLimited(ItemStack item) {
+        return item != null && limits().indexOf(item.getType()) >= 0;
+    }
+
+    private void scheduleRecount(Player player) {
+        scheduleRecount(player, plugin.getPlayerStates().get(player));
+    }
+
+    private void scheduleRecount(Player player, PlayerState state) {
+        if (state.isBypass() || !plugin.getPlayerStates().markRecount(state)) {
+            return;
+        }
+        plugin.getPluginScheduler().runFor(player, () -> {
+            if (player.isOnline()) {
+                recountAndTrim(player, state);
+            }
+        });
+    }
+
+    /**
+     * Recount a player and drop whatever is over a limit
+     */
+    private void recountAndTrim(Player player, PlayerState state) {
+        plugin.getPlayerStates().recount(player, state);
+        QuantityLimits limits = limits();
+        for (int index = 0; index < limits.size(); index++) {
+            int excess = state.getItemCount(index) - limits.getLimit(index);
+            if (excess > 0) {
+                dropExcess(player, limits.getMaterial(index), excess);
+                state.addItemCount(index, -excess);
+                sendLimitMessage(player, index);
+            }
+        }
+    }
+
+    // Remove from the last slots first so the hotbar keeps its items
+    private void dropExcess(Player player, Material material, int excess) {
+        PlayerInventory inventory = player.getInventory();
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = contents.length - 1; slot >= 0 && excess > 0; slot--) {
+            ItemStack item = contents[slot];
+            if (item == null || item.getType() != material) {
+                continue;
+            }
+            int removed = Math.min(excess, item.getAmount());
+            ItemStack dropped = item.clone();
+            dropped.setAmount(removed);
+            item.setAmount(item.getAmount() - removed);
+            inventory.setItem(slot, item.getAmount() > 0 ? item : null);
+            player.getWorld().dropItemNaturally(player.getLocation(), dropped);
+            excess -= removed;
+        }
+    }
+
+    private void sendLimitMessage(Player player, int index) {
+        QuantityLimits limits = limits();
+        String message = plugin.getConfig().getString("messages.quantity-limit",
+                "&cYou can carry at most %limit% %item%!")
+                .replace("%limit%", String.valueOf(limits.getLimit(index)))
+                .replace("%item%", limits.getMaterial(index).name().toLowerCase(Locale.ROOT).replace('_', ' '));
+        player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
+    }
+}
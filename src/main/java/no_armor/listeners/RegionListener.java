@@ -0,0 +1,91 @@
+package no_armor.listeners;
+
+import no_armor.NoArmorPlugin;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDismountEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+/**
+ * Tracks which configured regions each player is standing in.
+ */
+public class RegionListener implements Listener {
+
+    private final NoArmorPlugin plugin;
+
+    public RegionListener(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location to = event.getTo();
+        if (!sameBlock(event.getFrom(), to)) {
+            plugin.getPlayerStates().updateRegions(event.getPlayer(), to);
+        }
+    }
+
+    /**
+     * Players riding a vehicle get no move events of their own
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        Location to = event.getTo();
+        if (sameBlock(event.getFrom(), to)) {
+            return;
+        }
+
+        for (Entity passenger : event.getVehicle().getPassengers()) {
+            if (passenger instanceof Player player) {
+                plugin.getPlayerStates().updateRegions(player, to);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDismount(EntityDismountEvent event) {
+        if (!(event.getEntity() instanceof Player player)) {
+            return;
+        }
+
+        // The player is only moved off the vehicle after the event
+        plugin.getPluginScheduler().runFor(player, () -> {
+            if (player.isOnline()) {
+                plugin.getPlayerStates().updateRegions(player, player.getLocation());
+            }
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        Player player = event.getPlayer();
+        Location to = event.getRespawnLocation();
+        // Respawning in another world is re-resolved on PlayerChangedWorldEvent
+        if (player.getWorld() == to.getWorld()) {
+            plugin.getPlayerStates().updateRegions(player, to);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        // Cross-world teleports are fully re-resolved on PlayerChangedWorldEvent
+        if (event.getFrom().getWorld() != event.getTo().getWorld()) {
+            return;
+        }
+
+        plugin.getPlayerStates().updateRegions(event.getPlayer(), event.getTo());
+    }
+
+    // Head rotation and sub-block movement can't change regions
+    private static boolean sameBlock(Location from, Location to) {
+        return from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ();
+    }
+}
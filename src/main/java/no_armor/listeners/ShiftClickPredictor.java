@@ -0,0 +1,108 @@
+package no_armor.listeners;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Predicts where a shift-click places an item in the player inventory,
+ * following the vanilla order (merge into matching stacks first, then fill
+ * empty slots), so a move that would touch a restricted slot can be
+ * redirected before it happens.
+ */
+public final class ShiftClickPredictor {
+
+    // Storage blocks and result slots: hotbar right to left, then main inventory bottom up
+    public static final int[] CONTAINER_TO_PLAYER = order(8, 0, 35, 9);
+    // Menu inputs, crafting grids and equipment: main inventory top down, then hotbar left to right
+    public static final int[] MAIN_FIRST = order(9, 35, 0, 8);
+    // Within the player's own inventory view
+    public static final int[] MAIN_TO_HOTBAR = order(0, 8);
+    public static final int[] HOTBAR_TO_MAIN = order(9, 35);
+
+    private ShiftClickPredictor() {
+    }
+
+    /**
+     * Check whether moving an item along an order would put any of it into
+     * a restricted slot (bit n = slot n)
+     */
+    public static boolean wouldLandRestricted(ItemStack[] contents, ItemStack item, int[] order, long restricted) {
+        int remaining = item.getAmount();
+        int max = item.getMaxStackSize();
+
+        for (int slot : order) {
+            ItemStack current = contents[slot];
+            if (!isEmpty(current) && current.isSimilar(item) && current.getAmount() < max) {
+                if (isRestricted(restricted, slot)) {
+                    return true;
+                }
+                remaining -= max - current.getAmount();
+                if (remaining <= 0) {
+                    return false;
+                }
+            }
+        }
+        for (int slot : order) {
+            if (isEmpty(contents[slot])) {
+                // Vanilla moves the whole remainder into the first empty slot
+                return isRestricted(restricted, slot);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move an item along an order into the contents, skipping restricted
+     * slots. Returns how many items did not fit.
+     */
+    public static int moveAvoiding(ItemStack[] contents, ItemStack item, int[] order, long restricted) {
+        int remaining = item.getAmount();
+        int max = item.getMaxStackSize();
+
+        for (int slot : order) {
+            ItemStack current = contents[slot];
+            if (remaining > 0 && !isRestricted(restricted, slot) && !isEmpty(current)
+                    && current.isSimilar(item) && current.getAmount() < max) {
+                int moved = Math.min(remaining, max - current.getAmount());
+                ItemStack merged = current.clone();
+                merged.setAmount(current.getAmount() + moved);
+                contents[slot] = merged;
+                remaining -= moved;
+            }
+        }
+        for (int slot : order) {
+            if (remaining > 0 && !isRestricted(restricted, slot) && isEmpty(contents[slot])) {
+                int moved = Math.min(remaining, max);
+                ItemStack placed = item.clone();
+                placed.setAmount(moved);
+                contents[slot] = placed;
+                remaining -= moved;
+            }
+        }
+        return remaining;
+    }
+
+    private static boolean isRestricted(long restricted, int slot) {
+        return (restricted & (1L << slot)) != 0;
+    }
+
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType().isAir();
+    }
+
+    // Concatenate inclusive ranges, each ascending or descending
+    private static int[] order(int... ranges) {
+        int length = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            length += Math.abs(ranges[i + 1] - ranges[i]) + 1;
+        }
+        int[] slots = new int[length];
+        int index = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            int step = ranges[i + 1] >= ranges[i] ? 1 : -1;
+            for (int slot = ranges[i]; slot != ranges[i + 1] + step; slot += step) {
+                slots[index++] = slot;
+            }
+        }
+        return slots;
+    }
+}
@@ -1,103 +1,131 @@
 package no_armor.listeners;
 
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.Equippable;
+import no_armor.EnforcementGovernor;
 import no_armor.NoArmorPlugin;
+import no_armor.OverlayService;
+import no_armor.player.EnforcementScheduler;
+import no_armor.player.PlayerState;
+import no_armor.policy.PolicySnapshot;
+import no_armor.policy.SlotLayout;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
+import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.Event;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.inventory.*;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
 
 /**
  * Handles inventory slot restrictions - blocks specific inventory slots
  * entirely.
- * Uses a periodic task to maintain overlays and enforce restrictions.
+ * Players are enforced after events that can fill a restricted slot, with a
+ * slow shared sweep as a backstop.
  */
 public class SlotRestrictionListener implements Listener {
 
     private final NoArmorPlugin plugin;
-    private final Set<Integer> restrictedSlots = new HashSet<>();
-    private final Map<UUID, Integer> enforcementTasks = new HashMap<>();
+    private final EnforcementScheduler scheduler;
+    private final OverlayService overlays;
+    // Set by the governor while the server is over its tick budget
+    private volatile boolean deferOverlays;
+    private volatile boolean quarantineEject;
 
     // Inventory slot constants
-    public static final int HOTBAR_START = 0;
-    public static final int HOTBAR_END = 8;
-    public static final int MAIN_INV_START = 9;
-    public static final int MAIN_INV_END = 35;
-    public static final int BOOTS_SLOT = 36;
-    public static final int LEGGINGS_SLOT = 37;
-    public static final int CHESTPLATE_SLOT = 38;
-    public static final int HELMET_SLOT = 39;
-    public static final int OFFHAND_SLOT = 40;
+    public static final int HOTBAR_START = SlotLayout.HOTBAR_START;
+    public static final int HOTBAR_END = SlotLayout.HOTBAR_END;
+    public static final int MAIN_INV_START = SlotLayout.MAIN_INV_START;
+    public static final int MAIN_INV_END = SlotLayout.MAIN_INV_END;
+    public static final int BOOTS_SLOT = SlotLayout.BOOTS_SLOT;
+    public static final int LEGGINGS_SLOT = SlotLayout.LEGGINGS_SLOT;
+    public static final int CHESTPLATE_SLOT = SlotLayout.CHESTPLATE_SLOT;
+    public static final int HELMET_SLOT = SlotLayout.HELMET_SLOT;
+    public static final int OFFHAND_SLOT = SlotLayout.OFFHAND_SLOT;
 
     public SlotRestrictionListener(NoArmorPlugin plugin) {
         this.plugin = plugin;
-        loadRestrictedSlots();
+        this.scheduler = new EnforcementScheduler(plugin, this::enforce);
+        this.overlays = plugin.getOverlayService();
     }
 
-    public void loadRestrictedSlots() {
-        restrictedSlots.clear();
+    /**
+     * Start the shared enforcement task, including players already online
+     * (e.g. after a server reload)
+     */
+    public void start() {
+        reloadSettings();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            scheduler.add(player);
+        }
+        scheduler.start();
+    }
+
+    public void stop() {
+        scheduler.stop();
+    }
 
-        List<String> slotConfig = plugin.getConfig().getStringList("restricted-slots.slots");
-        for (String entry : slotConfig) {
-            parseAndAddSlots(entry);
+    /**
+     * Pick up a changed per-tick cap and eject mode after a reload
+     */
+    public void reloadSettings() {
+        scheduler.setMaxPerTick(plugin.getConfig().getInt("enforcement.max-players-per-tick", 50));
+        scheduler.setSweepTicks(plugin.getConfig().getInt("enforcement.sweep-seconds", 10) * 20);
+        String ejectMode = plugin.getConfig().getString("enforcement.eject-mode", "drop");
+        quarantineEject = ejectMode.equalsIgnoreCase("quarantine");
+        if (!quarantineEject && !ejectMode.equalsIgnoreCase("drop")) {
+            plugin.getLogger().warning("Unknown enforcement.eject-mode '" + ejectMode + "', using drop");
         }
+    }
 
-        plugin.getLogger().info("Loaded " + restrictedSlots.size() + " restricted inventory slots");
+    /**
+     * Apply the load mode chosen by the enforcement governor
+     */
+    public void applyGovernorMode(EnforcementGovernor.Mode mode) {
+        scheduler.setLoadFactors(mode.getSweepMultiplier(), mode.getBatchDivisor());
+        deferOverlays = mode.isDeferOverlays();
     }
 
-    private void parseAndAddSlots(String entry) {
-        entry = entry.trim();
-        if (entry.isEmpty())
-            return;
+    /**
+     * Enforce a player's restricted slots on the next tick
+     */
+    public void markDirty(Player player) {
+        markDirty(player, plugin.getPlayerStates().get(player));
+    }
 
-        try {
-            if (entry.contains("-")) {
-                String[] parts = entry.split("-");
-                int start = Integer.parseInt(parts[0].trim());
-                int end = Integer.parseInt(parts[1].trim());
-                for (int i = start; i <= end; i++) {
-                    restrictedSlots.add(i);
-                }
-            } else if (entry.equalsIgnoreCase("hotbar")) {
-                for (int i = HOTBAR_START; i <= HOTBAR_END; i++) {
-                    restrictedSlots.add(i);
-                }
-            } else if (entry.equalsIgnoreCase("main")) {
-                for (int i = MAIN_INV_START; i <= MAIN_INV_END; i++) {
-                    restrictedSlots.add(i);
-                }
-            } else if (entry.equalsIgnoreCase("armor")) {
-                for (int i = BOOTS_SLOT; i <= HELMET_SLOT; i++) {
-                    restrictedSlots.add(i);
-                }
-            } else if (entry.equalsIgnoreCase("offhand")) {
-                restrictedSlots.add(OFFHAND_SLOT);
-            } else {
-                restrictedSlots.add(Integer.parseInt(entry));
-            }
-        } catch (NumberFormatException e) {
-            plugin.getLogger().warning("Invalid slot config entry: " + entry);
+    public void markDirty(Player player, PlayerState state) {
+        if (!state.isBypass()) {
+            scheduler.markDirty(player, state);
         }
     }
 
-    public boolean isSlotRestricted(int slot) {
-        return restrictedSlots.contains(slot);
+    /**
+     * Check if a slot is restricted for a player in their current world
+     */
+    public boolean isSlotRestricted(Player player, int slot) {
+        return plugin.getPlayerStates().get(player).getPolicy().isSlotRestricted(slot);
     }
 
     /**
-     * Block direct clicks on restricted slots only
-     * Let shift-clicks through - the enforcer will handle items landing in wrong
-     * slots
+     * Block direct clicks on restricted slots, and redirect shift-clicks that
+     * would land in one so the enforcer rarely has to eject anything
      */
     @EventHandler(priority = EventPriority.LOWEST)
     public void onInventoryClick(InventoryClickEvent event) {
@@ -105,17 +133,19 @@ public class SlotRestrictionListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
+        PolicySnapshot policy = state.getPolicy();
 
         // Only block direct interaction with restricted slots
         if (event.getClickedInventory() instanceof PlayerInventory) {
             int slot = event.getSlot();
-            if (isSlotRestricted(slot)) {
+            if (policy.isSlotRestricted(slot)) {
                 // Block picking up overlay items
                 ItemStack clicked = event.getCurrentItem();
-                if (clicked != null && isOverlayItem(clicked)) {
+                if (clicked != null && overlays.isOverlay(clicked)) {
                     event.setCancelled(true);
                     return;
                 }
@@ -133,16 +163,30 @@ public class SlotRestrictionListener implements Listener {
             }
         }
 
+        if (policy.getRestrictedSlots() != 0) {
+            InventoryAction action = event.getAction();
+            if (action == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
+                handleShiftClick(event, player, policy);
+                return;
+            }
+            // Double-click collecting could gather overlays sharing the cursor's material
+            if (action == InventoryAction.COLLECT_TO_CURSOR && event.getCursor() != null
+                    && event.getCursor().getType() == overlays.getMaterial()) {
+                event.setCancelled(true);
+                return;
+            }
+        }
+
         // Handle hotbar swap (number keys) to restricted slots
         if (event.getClick() == ClickType.NUMBER_KEY) {
             int hotbarSlot = event.getHotbarButton();
-            if (isSlotRestricted(hotbarSlot)) {
+            if (policy.isSlotRestricted(hotbarSlot)) {
                 event.setCancelled(true);
                 return;
             }
             // Also block swapping TO a restricted slot
             if (event.getClickedInventory() instanceof PlayerInventory) {
-                if (isSlotRestricted(event.getSlot())) {
+                if (policy.isSlotRestricted(event.getSlot())) {
                     event.setCancelled(true);
                     return;
                 }
@@ -150,6 +194,124 @@ public class SlotRestrictionListener implements Listener {
         }
     }
 
+    /**
+     * Predict where a shift-clicked item goes. If any of it would land in a
+     * restricted slot, cancel the click. Items from plain storage slots are
+     * then moved by us next tick using only allowed slots; results of crafts,
+     * trades and other menus are only cancelled, since taking them has costs
+     * we can't replay.
+     */
+    private void handleShiftClick(InventoryClickEvent event, Player player, PolicySnapshot policy) {
+        ItemStack item = event.getCurrentItem();
+        Inventory clicked = event.getClickedInventory();
+        if (item == null || item.getType().isAir() || clicked == null) {
+            return;
+        }
+
+        InventoryType.SlotType slotType = event.getSlotType();
+        InventoryType topType = event.getView().getTopInventory().getType();
+        int[] order;
+        if (!(clicked instanceof PlayerInventory)) {
+            order = orderFromMenu(topType, slotType);
+        } else if (topType == InventoryType.CRAFTING) {
+            int slot = event.getSlot();
+            int equipSlot = equipSlotFor(item.getType().getEquipmentSlot());
+            if (slot <= MAIN_INV_END && equipSlot >= 0) {
+                // Vanilla equips armor and shields from storage if the matching slot is empty
+                ItemStack worn = player.getInventory().getItem(equipSlot);
+                if (worn == null || worn.getType().isAir()) {
+                    if (policy.isSlotRestricted(equipSlot)) {
+                        event.setCancelled(true);
+                        sendBlockedMessage(player);
+                    }
+                    return;
+                }
+            }
+            order = slot <= HOTBAR_END ? ShiftClickPredictor.HOTBAR_TO_MAIN
+                    : slot <= MAIN_INV_END ? ShiftClickPredictor.MAIN_TO_HOTBAR
+                    : ShiftClickPredictor.MAIN_FIRST;
+        } else {
+            // From the player inventory into an open container
+            return;
+        }
+
+        long restricted = policy.getRestrictedSlots();
+        if (!ShiftClickPredictor.wouldLandRestricted(player.getInventory().getContents(), item, order, restricted)) {
+            return;
+        }
+
+        event.setCancelled(true);
+        boolean storage = clicked instanceof PlayerInventory
+                || slotType == InventoryType.SlotType.CONTAINER || slotType == InventoryType.SlotType.QUICKBAR;
+        if (!storage) {
+            sendBlockedMessage(player);
+            return;
+        }
+        int sourceSlot = event.getSlot();
+        plugin.getPluginScheduler().runFor(player, () -> redirectShiftClick(player, clicked, sourceSlot, order, restricted));
+    }
+
+    /**
+     * Destination order when shift-clicking out of an open menu. Menus with
+     * input slots fill the main inventory first, ascending; storage blocks
+     * and every result slot fill the hotbar first, in reverse.
+     */
+    private static int[] orderFromMenu(InventoryType topType, InventoryType.SlotType slotType) {
+        if (slotType == InventoryType.SlotType.RESULT) {
+            return ShiftClickPredictor.CONTAINER_TO_PLAYER;
+        }
+        return switch (topType) {
+            case CRAFTING, WORKBENCH, FURNACE, BLAST_FURNACE, SMOKER, BREWING, MERCHANT, ANVIL, SMITHING,
+                    GRINDSTONE, STONECUTTER, CARTOGRAPHY, LOOM -> ShiftClickPredictor.MAIN_FIRST;
+            default -> ShiftClickPredictor.CONTAINER_TO_PLAYER;
+        };
+    }
+
+    private void redirectShiftClick(Player player, Inventory source, int sourceSlot, int[] order, long restricted) {
+        if (!player.isOnline()) {
+            return;
+        }
+        PlayerInventory inv = player.getInventory();
+        // Don't reach into a container the player has closed since
+        if (source != inv && player.getOpenInventory().getTopInventory() != source) {
+            return;
+        }
+        ItemStack item = source.getItem(sourceSlot);
+        if (item == null || item.getType().isAir()) {
+            return;
+        }
+
+        ItemStack[] contents = inv.getContents();
+        int left = ShiftClickPredictor.moveAvoiding(contents, item, order, restricted);
+        if (left == item.getAmount()) {
+            return;
+        }
+
+        ItemStack remainder = null;
+        if (left > 0) {
+            remainder = item.clone();
+            remainder.setAmount(left);
+        }
+        if (source == inv) {
+            contents[sourceSlot] = remainder;
+            inv.setContents(contents);
+        } else {
+            inv.setContents(contents);
+            source.setItem(sourceSlot, remainder);
+        }
+    }
+
+    private static int equipSlotFor(EquipmentSlot equipment) {
+        return switch (equipment) {
+            case HEAD -> HELMET_SLOT;
+            case CHEST -> CHESTPLATE_SLOT;
+            case LEGS -> LEGGINGS_SLOT;
+            case FEET -> BOOTS_SLOT;
+            case OFF_HAND -> OFFHAND_SLOT;
+            default -> -1;
+        };
+    }
+
     /**
      * Block dragging items into restricted slots
      */
@@ -159,7 +321,8 @@ public class SlotRestrictionListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
@@ -167,7 +330,7 @@ public class SlotRestrictionListener implements Listener {
         for (int rawSlot : event.getRawSlots()) {
             if (event.getView().getInventory(rawSlot) instanceof PlayerInventory) {
                 int slot = event.getView().convertSlot(rawSlot);
-                if (isSlotRestricted(slot)) {
+                if (state.getPolicy().isSlotRestricted(slot)) {
                     event.setCancelled(true);
                     sendBlockedMessage(player);
                     return;
@@ -177,160 +340,304 @@ public class SlotRestrictionListener implements Listener {
     }
 
     /**
-     * Start enforcement task when player joins
+     * Block right-click equipping into a restricted armor slot. The equip
+     * swaps the held item with whatever the slot holds, overlay panes
+     * included. Air clicks report as cancelled, so the item-use result is
+     * checked instead of ignoreCancelled.
      */
-    @EventHandler(priority = EventPriority.MONITOR)
-    public void onPlayerJoin(PlayerJoinEvent event) {
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onEquipInteract(PlayerInteractEvent event) {
+        if (event.useItemInHand() == Event.Result.DENY || !event.getAction().isRightClick()) {
+            return;
+        }
         Player player = event.getPlayer();
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
+            return;
+        }
+
+        int slot = swapEquipSlot(event.getItem());
+        if (slot >= 0 && state.getPolicy().isSlotRestricted(slot)) {
+            event.setUseItemInHand(Event.Result.DENY);
+            sendBlockedMessage(player);
+        }
+    }
 
-        if (player.hasPermission("noarmor.bypass")) {
+    /**
+     * Block dispensers equipping armor into a restricted slot
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onDispenseArmor(BlockDispenseArmorEvent event) {
+        if (!(event.getTargetEntity() instanceof Player player)) {
+            return;
+        }
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
-        // Start periodic enforcement task
-        startEnforcementTask(player);
+        int slot = equipSlotFor(event.getItem().getType().getEquipmentSlot());
+        if (slot >= 0 && state.getPolicy().isSlotRestricted(slot)) {
+            event.setCancelled(true);
+        }
     }
 
     /**
-     * Stop enforcement task when player leaves
+     * Get the armor slot an item is swapped into on right-click, or -1
      */
+    private static int swapEquipSlot(ItemStack item) {
+        if (item == null || item.getType().isAir()) {
+            return -1;
+        }
+        Equippable equippable = item.getData(DataComponentTypes.EQUIPPABLE);
+        if (equippable == null || !equippable.swappable()) {
+            return -1;
+        }
+        int slot = equipSlotFor(equippable.slot());
+        return slot == OFFHAND_SLOT ? -1 : slot;
+    }
+
+    // Events that can put an item into a restricted slot queue the player
+    // for enforcement; everything else is left to the slow sweep
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClickMonitor(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            markDirty(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDragMonitor(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            markDirty(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            markDirty(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryMove(InventoryMoveItemEvent event) {
+        if (event.getDestination().getHolder() instanceof Player player) {
+            markDirty(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        markDirty(event.getPlayer());
+    }
+
     @EventHandler(priority = EventPriority.MONITOR)
-    public void onPlayerQuit(PlayerQuitEvent event) {
-        stopEnforcementTask(event.getPlayer());
-        removeSlotOverlays(event.getPlayer());
+    public void onEquipInteractMonitor(PlayerInteractEvent event) {
+        if (event.getAction().isRightClick() && event.useItemInHand() != Event.Result.DENY
+                && swapEquipSlot(event.getItem()) >= 0) {
+            markDirty(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDispenseArmorMonitor(BlockDispenseArmorEvent event) {
+        if (event.getTargetEntity() instanceof Player player) {
+            markDirty(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        markDirty(event.getPlayer());
     }
 
     /**
-     * Start a periodic task to enforce slot restrictions AND maintain overlays
+     * Commands such as /give or /item can fill any slot
      */
-    private void startEnforcementTask(Player player) {
-        UUID uuid = player.getUniqueId();
-
-        // Cancel existing task if any
-        stopEnforcementTask(player);
-
-        // Run every 5 ticks (0.25 seconds) to catch bypasses and maintain overlays
-        int taskId = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    this.cancel();
-                    enforcementTasks.remove(uuid);
-                    return;
-                }
-                if (player.hasPermission("noarmor.bypass")) {
-                    return;
-                }
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        markDirty(event.getPlayer());
+    }
 
-                // ALWAYS maintain overlays and enforce restrictions
-                enforceAndOverlay(player);
+    /**
+     * Console commands may target any player; command blocks fire too often
+     * and are left to the sweep
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onServerCommand(ServerCommandEvent event) {
+        if (event.getSender() instanceof ConsoleCommandSender) {
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                markDirty(player);
             }
-        }.runTaskTimer(plugin, 10L, 5L).getTaskId();
+        }
+    }
 
-        enforcementTasks.put(uuid, taskId);
+    /**
+     * Add the player to the shared enforcement ring when they join
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        scheduler.add(event.getPlayer());
+    }
+
+    /**
+     * Remove the player from the enforcement ring when they leave
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        scheduler.remove(event.getPlayer());
+        removeSlotOverlays(event.getPlayer());
     }
 
     /**
-     * Stop the enforcement task for a player
+     * One enforcement pass for a player, called by the shared scheduler
      */
-    private void stopEnforcementTask(Player player) {
-        UUID uuid = player.getUniqueId();
-        Integer taskId = enforcementTasks.remove(uuid);
-        if (taskId != null) {
-            plugin.getServer().getScheduler().cancelTask(taskId);
+    private void enforce(Player player) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
+            return;
         }
+        enforceAndOverlay(player, state);
     }
 
     /**
-     * Enforce restrictions AND apply/maintain overlays
+     * Enforce restrictions AND apply/maintain overlays. Reads the inventory
+     * once, works out every change against the restricted-slot mask and
+     * writes back only the slots that changed.
      */
-    private void enforceAndOverlay(Player player) {
+    private void enforceAndOverlay(Player player, PlayerState state) {
         PlayerInventory inv = player.getInventory();
+        long restricted = state.getPolicy().getRestrictedSlots();
+        long released = state.getEnforcedSlots() & ~restricted;
+        state.setEnforcedSlots(restricted);
+        if (restricted == 0 && released == 0) {
+            return;
+        }
+
+        ItemStack[] contents = inv.getContents();
+        long changed = 0;
+        List<ItemStack> drops = null;
+        // Client mode only covers equipment; storage slots keep real panes so
+        // pickups and addItem can't fill them
+        long clientSlots = overlays.isClientMode() ? OverlayService.CLIENT_SLOTS : 0;
+        long shown = 0;
+
+        // Client-side panes only go away when the client is resynced
+        if ((released & clientSlots) != 0) {
+            player.updateInventory();
+        }
 
-        for (int slot : restrictedSlots) {
-            if (slot < 0 || slot > 40)
-                continue;
+        // Clear overlays from slots that are no longer restricted (world change or reload)
+        while (released != 0) {
+            int slot = Long.numberOfTrailingZeros(released);
+            released &= released - 1;
+            if (slot < contents.length && overlays.isOverlay(contents[slot])) {
+                contents[slot] = null;
+                changed |= 1L << slot;
+            }
+        }
 
-            ItemStack current = inv.getItem(slot);
+        long remaining = restricted;
+        while (remaining != 0) {
+            int slot = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if (slot >= contents.length) {
+                break;
+            }
 
+            ItemStack current = contents[slot];
+            boolean clientSide = (clientSlots & (1L << slot)) != 0;
             if (current == null || current.getType().isAir()) {
-                // Empty slot - place overlay
-                inv.setItem(slot, createOverlayItem());
-            } else if (!isOverlayItem(current)) {
+                // Empty slot - place overlay, unless the server is overloaded;
+                // clicks into the slot are blocked either way
+                if (clientSide) {
+                    shown |= 1L << slot;
+                } else if (!deferOverlays) {
+                    contents[slot] = overlays.createOverlay();
+                    changed |= 1L << slot;
+                }
+            } else if (!overlays.isOverlay(current)) {
                 // Real item in restricted slot - drop it
-                player.getWorld().dropItemNaturally(player.getLocation(), current.clone());
-                inv.setItem(slot, createOverlayItem());
+                if (drops == null) {
+                    drops = new ArrayList<>();
+                }
+                drops.add(current);
+                contents[slot] = clientSide ? null : overlays.createOverlay();
+                shown |= clientSide ? 1L << slot : 0;
+                changed |= 1L << slot;
+            } else if (clientSide) {
+                // Pane left over from item mode
+                contents[slot] = null;
+                shown |= 1L << slot;
+                changed |= 1L << slot;
             }
             // If it's already an overlay, leave it alone
         }
+
+        writeSlots(inv, contents, changed);
+        if (drops != null) {
+            eject(player, drops);
+        }
+        if (shown != 0 && !deferOverlays) {
+            overlays.showClientSide(player, shown);
+        }
     }
 
     /**
-     * Remove overlay items from inventory
+     * Get items out of a restricted slot: into the player's quarantine store
+     * if enabled, otherwise onto the ground
      */
-    private void removeSlotOverlays(Player player) {
-        PlayerInventory inv = player.getInventory();
-
-        for (int slot = 0; slot <= 40; slot++) {
-            ItemStack item = inv.getItem(slot);
-            if (item != null && isOverlayItem(item)) {
-                inv.setItem(slot, null);
-            }
+    private void eject(Player player, List<ItemStack> items) {
+        if (quarantineEject) {
+            plugin.getQuarantineStore().add(player.getUniqueId(), items);
+            String message = plugin.getConfig().getString("messages.items-quarantined",
+                    "&eItems in restricted slots were stored. Use /noarmor claim to get them back.");
+            player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
+            return;
+        }
+        for (ItemStack item : items) {
+            player.getWorld().dropItemNaturally(player.getLocation(), item);
         }
     }
 
     /**
-     * Create overlay item for restricted slots
+     * Remove overlay items from inventory
      */
-    private ItemStack createOverlayItem() {
-        String materialName = plugin.getConfig().getString(
-                "visuals.blocked-slot-material", "GRAY_STAINED_GLASS_PANE");
-        Material material;
-        try {
-            material = Material.valueOf(materialName.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            material = Material.GRAY_STAINED_GLASS_PANE;
-        }
-
-        ItemStack item = new ItemStack(material);
-        ItemMeta meta = item.getItemMeta();
-        if (meta != null) {
-            String name = plugin.getConfig().getString(
-                    "visuals.blocked-slot-name", "&c&lRestricted");
-            meta.setDisplayName(ChatColor.translateAlternateColorCodes('&', name));
-
-            List<String> lore = new ArrayList<>();
-            lore.add(ChatColor.GRAY + "This slot is restricted");
-            lore.add(ChatColor.DARK_GRAY + "NoArmor-SlotOverlay");
-            meta.setLore(lore);
-
-            item.setItemMeta(meta);
+    private void removeSlotOverlays(Player player) {
+        PlayerInventory inv = player.getInventory();
+        ItemStack[] contents = inv.getContents();
+        long changed = 0;
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (overlays.isOverlay(contents[slot])) {
+                contents[slot] = null;
+                changed |= 1L << slot;
+            }
         }
-        return item;
+        writeSlots(inv, contents, changed);
     }
 
     /**
-     * Check if item is our overlay
+     * Write back the changed slots of a contents snapshot (bit n = slot n).
+     * setContents would rewrite and resync every slot, so each changed slot
+     * is set on its own.
      */
-    public boolean isOverlayItem(ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
-            return false;
-        }
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null || !meta.hasLore()) {
-            return false;
+    private static void writeSlots(PlayerInventory inv, ItemStack[] contents, long changed) {
+        while (changed != 0) {
+            int slot = Long.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+            inv.setItem(slot, contents[slot]);
         }
-        List<String> lore = meta.getLore();
-        return lore != null && lore.stream()
-                .anyMatch(line -> line.contains("NoArmor-SlotOverlay") || line.contains("NoArmor-Overlay"));
     }
 
     private void sendBlockedMessage(Player player) {
         String message = plugin.getConfig().getString("messages.slot-blocked", "&cThis inventory slot is restricted!");
         player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
     }
-
-    public Set<Integer> getRestrictedSlots() {
-        return Collections.unmodifiableSet(restrictedSlots);
-    }
 }
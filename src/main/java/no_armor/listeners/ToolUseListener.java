@@ -1,15 +1,21 @@
 package no_armor.listeners;
 
+import com.destroystokyo.paper.event.player.PlayerElytraBoostEvent;
+import com.destroystokyo.paper.event.player.PlayerLaunchProjectileEvent;
 import no_armor.NoArmorPlugin;
+import no_armor.player.PlayerState;
+import no_armor.policy.ItemCooldowns;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityShootBowEvent;
+import org.bukkit.event.entity.EntityToggleGlideEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemConsumeEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
@@ -27,13 +33,19 @@ public class ToolUseListener implements Listener {
     }
 
     /**
-     * Prevent using restricted items (right-click actions)
+     * Prevent using restricted items (right-click actions). Clicks into the
+     * air always report as cancelled since there is no block to use, so the
+     * item-use result is checked instead of ignoreCancelled.
      */
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerInteract(PlayerInteractEvent event) {
+        if (event.useItemInHand() == Event.Result.DENY) {
+            return;
+        }
         Player player = event.getPlayer();
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
@@ -47,13 +59,35 @@ public class ToolUseListener implements Listener {
             return;
         }
 
-        if (!isItemAllowed(item.getType())) {
+        if (!state.getPolicy().isAllowed(item)) {
             // Block all interactions with restricted items
             if (event.getAction() != Action.PHYSICAL) {
                 event.setCancelled(true);
                 sendBlockedMessage(player);
             }
+            return;
         }
+
+        // Only the item use is denied, so doors and chests still work
+        if (event.getAction().isRightClick() && isOnCooldown(player, state, item.getType())) {
+            event.setUseItemInHand(Event.Result.DENY);
+        }
+    }
+
+    /**
+     * Start the cooldown of thrown items such as ender pearls and wind charges
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLaunchProjectile(PlayerLaunchProjectileEvent event) {
+        startCooldown(event.getPlayer(), event.getItemStack().getType());
+    }
+
+    /**
+     * Start the cooldown of firework rockets used to boost an elytra
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onElytraBoost(PlayerElytraBoostEvent event) {
+        startCooldown(event.getPlayer(), event.getItemStack().getType());
     }
 
     /**
@@ -65,12 +99,13 @@ public class ToolUseListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
         ItemStack mainHand = player.getInventory().getItemInMainHand();
-        if (!mainHand.getType().isAir() && !isItemAllowed(mainHand.getType())) {
+        if (!mainHand.getType().isAir() && !state.getPolicy().isAllowed(mainHand)) {
             event.setCancelled(true);
             sendBlockedMessage(player);
         }
@@ -85,17 +120,25 @@ public class ToolUseListener implements Listener {
             return;
         }
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
         ItemStack bow = event.getBow();
-        if (bow != null && !isItemAllowed(bow.getType())) {
+        if (bow != null && !state.getPolicy().isAllowed(bow)) {
             event.setCancelled(true);
             sendBlockedMessage(player);
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBowShot(EntityShootBowEvent event) {
+        if (event.getEntity() instanceof Player player && event.getBow() != null) {
+            startCooldown(player, event.getBow().getType());
+        }
+    }
+
     /**
      * Prevent consuming restricted food/potions
      */
@@ -103,11 +146,44 @@ public class ToolUseListener implements Listener {
     public void onItemConsume(PlayerItemConsumeEvent event) {
         Player player = event.getPlayer();
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
-        if (!isItemAllowed(event.getItem().getType())) {
+        if (!state.getPolicy().isAllowed(event.getItem())) {
+            event.setCancelled(true);
+            sendBlockedMessage(player);
+            return;
+        }
+
+        if (isOnCooldown(player, state, event.getItem().getType())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemConsumed(PlayerItemConsumeEvent event) {
+        startCooldown(event.getPlayer(), event.getItem().getType());
+    }
+
+    /**
+     * Prevent gliding with a restricted elytra, e.g. one already worn when
+     * entering a region that blocks it
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onToggleGlide(EntityToggleGlideEvent event) {
+        if (!event.isGliding() || !(event.getEntity() instanceof Player player)) {
+            return;
+        }
+
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
+            return;
+        }
+
+        ItemStack chestplate = player.getInventory().getChestplate();
+        if (chestplate != null && !state.getPolicy().isAllowed(chestplate)) {
             event.setCancelled(true);
             sendBlockedMessage(player);
         }
@@ -120,12 +196,13 @@ public class ToolUseListener implements Listener {
     public void onItemHeld(PlayerItemHeldEvent event) {
         Player player = event.getPlayer();
 
-        if (player.hasPermission("noarmor.bypass")) {
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
             return;
         }
 
         ItemStack newItem = player.getInventory().getItem(event.getNewSlot());
-        if (newItem != null && !newItem.getType().isAir() && !isItemAllowed(newItem.getType())) {
+        if (newItem != null && !newItem.getType().isAir() && !state.getPolicy().isAllowed(newItem)) {
             // Just notify, don't prevent holding
             String message = plugin.getConfig().getString("messages.item-blocked",
                     "&cYou are not allowed to use this item!");
@@ -133,19 +210,49 @@ public class ToolUseListener implements Listener {
         }
     }
 
-    private boolean isArmor(Material material) {
-        String name = material.name().toLowerCase();
-        return name.contains("helmet") || name.contains("chestplate") ||
-                name.contains("leggings") || name.contains("boots") ||
-                name.equals("elytra") || name.equals("turtle_helmet");
-    }
+    /**
+     * Check a material's use cooldown. Expiry times are compared when the
+     * item is used, so nothing has to run when a cooldown ends; the client
+     * shows the remaining time through the vanilla item cooldown.
+     */
+    private boolean isOnCooldown(Player player, PlayerState state, Material material) {
+        int index = plugin.getPolicySet().getCooldowns().indexOf(material);
+        if (index < 0) {
+            return false;
+        }
 
-    private boolean isItemAllowed(Material material) {
-        if (material == null || material.isAir()) {
+        long remaining = state.getCooldownRemaining(index, System.currentTimeMillis());
+        if (remaining > 0) {
+            String message = plugin.getConfig().getString("messages.item-cooldown",
+                    "&cYou can use this item again in %seconds%s!")
+                    .replace("%seconds%", String.valueOf((remaining + 999) / 1000));
+            player.sendMessage(ChatColor.translateAlternateColorCodes('&', message));
             return true;
         }
-        String key = material.name().toLowerCase();
-        return plugin.isItemAllowed(key);
+        return false;
+    }
+
+    /**
+     * Start a material's cooldown once the item has actually been used
+     */
+    private void startCooldown(Player player, Material material) {
+        ItemCooldowns cooldowns = plugin.getPolicySet().getCooldowns();
+        int index = cooldowns.indexOf(material);
+        if (index < 0) {
+            return;
+        }
+
+        PlayerState state = plugin.getPlayerStates().get(player);
+        if (state.isBypass()) {
+            return;
+        }
+        long millis = cooldowns.getMillis(index);
+        state.startCooldown(index, System.currentTimeMillis() + millis);
+        player.setCooldown(material, (int) Math.min(Integer.MAX_VALUE, (millis + 49) / 50));
+    }
+
+    private boolean isArmor(Material material) {
+        return plugin.getItemClassifier().isArmor(material);
     }
 
     private void sendBlockedMessage(Player player) {
@@ -0,0 +1,212 @@
+package no_armor.player;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import no_armor.NoArmorPlugin;
+import no_armor.PluginScheduler;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Drives enforcement for all players. Players are enforced the tick after
+ * an event marks them dirty; a slow sweep over all players backs that up
+ * for changes no event reports.
+ * <p>
+ * On Paper one repeating task handles a bounded slice of a ring of players
+ * each tick, instead of a timer per player (which puts every player
+ * rejoining after a restart into the same tick), so idle players cost next
+ * to nothing and the work per tick stays flat. On Folia a player's
+ * inventory may only be touched from the region thread that owns them, so
+ * dirty players and sweeps are scheduled on each player's entity scheduler
+ * with staggered start ticks instead, and the work spreads over the region
+ * threads.
+ */
+public final class EnforcementScheduler {
+
+    private final NoArmorPlugin plugin;
+    private final PluginScheduler scheduler;
+    private final Consumer<Player> enforcer;
+    private int maxPerTick = Integer.MAX_VALUE;
+    // Every player is swept at least once per this many ticks, unless the
+    // per-tick cap stretches the cycle
+    private int sweepTicks = 200;
+    // Load factors set by the governor
+    private int sweepMultiplier = 1;
+    private int batchDivisor = 1;
+
+    // Paper: ring and queue, only touched from the main thread
+    private final List<Player> players = new ArrayList<>();
+    private final ArrayDeque<Player> dirty = new ArrayDeque<>();
+    private int cursor;
+    private ScheduledTask task;
+
+    // Folia: one sweep timer per player on their entity scheduler
+    private final Map<UUID, ScheduledTask> sweeps = new ConcurrentHashMap<>();
+    private final Map<UUID, Player> sweptPlayers = new ConcurrentHashMap<>();
+
+    public EnforcementScheduler(NoArmorPlugin plugin, Consumer<Player> enforcer) {
+        this.plugin = plugin;
+        this.scheduler = plugin.getPluginScheduler();
+        this.enforcer = enforcer;
+    }
+
+    /**
+     * Cap how many players are enforced in one tick; larger servers then
+     * take proportionally longer per cycle. Not used on Folia, where each
+     * region thread only enforces its own players.
+     */
+    public void setMaxPerTick(int maxPerTick) {
+        this.maxPerTick = Math.max(1, maxPerTick);
+    }
+
+    public void setSweepTicks(int sweepTicks) {
+        int ticks = Math.max(1, sweepTicks);
+        if (ticks != this.sweepTicks) {
+            this.sweepTicks = ticks;
+            rescheduleSweeps();
+        }
+    }
+
+    /**
+     * Back off under load: stretch the sweep period and shrink the per-tick
+     * batch by the given factors (1 for normal operation)
+     */
+    public void setLoadFactors(int sweepMultiplier, int batchDivisor) {
+        this.batchDivisor = Math.max(1, batchDivisor);
+        int multiplier = Math.max(1, sweepMultiplier);
+        if (multiplier != this.sweepMultiplier) {
+            this.sweepMultiplier = multiplier;
+            rescheduleSweeps();
+        }
+    }
+
+    private int effectiveSweepTicks() {
+        return sweepTicks * sweepMultiplier;
+    }
+
+    private void rescheduleSweeps() {
+        if (scheduler.isFolia()) {
+            for (Player player : sweptPlayers.values()) {
+                scheduleSweep(player);
+            }
+        }
+    }
+
+    /**
+     * Queue a player for enforcement on the next tick, e.g. after an event
+     * that may have put an item into a restricted slot
+     */
+    public void markDirty(Player player, PlayerState state) {
+        if (!state.enforcementQueued.compareAndSet(false, true)) {
+            return;
+        }
+        if (scheduler.isFolia()) {
+            ScheduledTask queued = scheduler.runFor(player, () -> {
+                state.enforcementQueued.set(false);
+                enforcer.accept(player);
+            });
+            // The task never runs for a retired player, which would leave
+            // the flag set and block every later markDirty
+            if (queued == null) {
+                state.enforcementQueued.set(false);
+            }
+        } else {
+            dirty.add(player);
+        }
+    }
+
+    public void start() {
+        if (!scheduler.isFolia() && task == null) {
+            task = scheduler.runGlobalTimer(this::tick, 1L, 1L);
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        sweeps.values().forEach(ScheduledTask::cancel);
+        sweeps.clear();
+        sweptPlayers.clear();
+    }
+
+    public void add(Player player) {
+        if (scheduler.isFolia()) {
+            sweptPlayers.put(player.getUniqueId(), player);
+            scheduleSweep(player);
+        } else if (!players.contains(player)) {
+            players.add(player);
+        }
+    }
+
+    public void remove(Player player) {
+        if (scheduler.isFolia()) {
+            sweptPlayers.remove(player.getUniqueId());
+            ScheduledTask sweep = sweeps.remove(player.getUniqueId());
+            if (sweep != null) {
+                sweep.cancel();
+            }
+            return;
+        }
+
+        dirty.remove(player);
+        int index = players.indexOf(player);
+        if (index < 0) {
+            return;
+        }
+        players.remove(index);
+        // Keep the cursor on the player that would have been next
+        if (index < cursor) {
+            cursor--;
+        }
+    }
+
+    private void scheduleSweep(Player player) {
+        // Spread first runs over the sweep period so joins don't line up
+        int period = effectiveSweepTicks();
+        long delay = 1L + Math.floorMod(player.getUniqueId().hashCode(), period);
+        ScheduledTask sweep = scheduler.runForTimer(player, () -> enforcer.accept(player), delay, period);
+        ScheduledTask previous = sweep != null ? sweeps.put(player.getUniqueId(), sweep)
+                : sweeps.remove(player.getUniqueId());
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void tick() {
+        int budget = Math.max(1, maxPerTick / batchDivisor);
+        while (budget > 0 && !dirty.isEmpty()) {
+            Player player = dirty.poll();
+            if (!player.isOnline()) {
+                continue;
+            }
+            plugin.getPlayerStates().get(player).enforcementQueued.set(false);
+            enforcer.accept(player);
+            budget--;
+        }
+
+        int size = players.size();
+        if (size == 0) {
+            return;
+        }
+
+        int period = effectiveSweepTicks();
+        int batch = Math.min(budget, (size + period - 1) / period);
+        for (int i = 0; i < batch; i++) {
+            if (cursor >= players.size()) {
+                cursor = 0;
+            }
+            Player player = players.get(cursor++);
+            if (player.isOnline()) {
+                enforcer.accept(player);
+            }
+        }
+    }
+}
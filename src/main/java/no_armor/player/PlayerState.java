@@ -0,0 +1,135 @@
+package no_armor.player;
+
+import no_armor.policy.ItemCooldowns;
+import no_armor.policy.PolicySet;
+import no_armor.policy.PolicySnapshot;
+import no_armor.policy.QuantityLimits;
+import no_armor.policy.Region;
+import no_armor.policy.RegionIndex;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cached per-player restriction state, resolved at join and refreshed only
+ * when something that can change it happens. Fields read by other threads
+ * are volatile; the rest is only touched from the thread that owns the
+ * player (the main thread on Paper, the player's region thread on Folia).
+ */
+public final class PlayerState {
+
+    private final UUID uuid;
+    private volatile boolean bypass;
+    private volatile PolicySet.Profile profile;
+    private volatile PolicySnapshot policy;
+    private long enforcedSlots;
+
+    // Profile, world and schedule policy before region overrides
+    PolicySnapshot basePolicy;
+
+    // Carried amounts of each limited material, indexed like the limits
+    QuantityLimits quantityLimits;
+    int[] itemCounts = new int[0];
+    boolean recountPending;
+
+    // Use cooldown expiry times in epoch millis, indexed like the cooldowns
+    ItemCooldowns cooldowns;
+    long[] cooldownExpiry = new long[0];
+
+    // Whether the player is waiting in the enforcement queue
+    final AtomicBoolean enforcementQueued = new AtomicBoolean();
+
+    // Region tracking, refreshed when the player crosses a chunk boundary
+    RegionIndex regionIndex;
+    Region[] regionCandidates;
+    int regionChunkX;
+    int regionChunkZ;
+    long regionMask;
+
+    PlayerState(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Whether the player holds noarmor.bypass, as of the last resolution
+     */
+    public boolean isBypass() {
+        return bypass;
+    }
+
+    void setBypass(boolean bypass) {
+        this.bypass = bypass;
+    }
+
+    /**
+     * The profile the player resolved to, or null for the defaults
+     */
+    public PolicySet.Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * The item policy that applies to this player, including the overrides
+     * of the regions they are standing in
+     */
+    public PolicySnapshot getPolicy() {
+        return policy;
+    }
+
+    void setProfile(PolicySet.Profile profile) {
+        this.profile = profile;
+    }
+
+    void setPolicy(PolicySnapshot policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * How much of a limited material (by counter index) the player carries,
+     * as of the last recount plus incremental updates
+     */
+    public int getItemCount(int index) {
+        return index < itemCounts.length ? itemCounts[index] : 0;
+    }
+
+    /**
+     * Adjust a counter after an exactly known change, e.g. a pickup
+     */
+    public void addItemCount(int index, int delta) {
+        if (index < itemCounts.length) {
+            itemCounts[index] = Math.max(0, itemCounts[index] + delta);
+        }
+    }
+
+    /**
+     * Milliseconds left on a use cooldown (by cooldown index), 0 if ready
+     */
+    public long getCooldownRemaining(int index, long now) {
+        return index < cooldownExpiry.length ? Math.max(0L, cooldownExpiry[index] - now) : 0L;
+    }
+
+    /**
+     * Start a use cooldown that expires at the given epoch millis
+     */
+    public void startCooldown(int index, long expiry) {
+        if (index < cooldownExpiry.length) {
+            cooldownExpiry[index] = expiry;
+        }
+    }
+
+    /**
+     * Slots the enforcer last placed overlays in, so slots released by a
+     * policy change can be cleaned up
+     */
+    public long getEnforcedSlots() {
+        return enforcedSlots;
+    }
+
+    public void setEnforcedSlots(long enforcedSlots) {
+        this.enforcedSlots = enforcedSlots;
+    }
+}
@@ -0,0 +1,184 @@
+package no_armor.player;
+
+import no_armor.NoArmorPlugin;
+import no_armor.PluginScheduler;
+import no_armor.listeners.SlotRestrictionListener;
+import no_armor.policy.PolicySet;
+import no_armor.policy.PolicySnapshot;
+import no_armor.policy.QuantityLimits;
+import no_armor.policy.Region;
+import no_armor.policy.RegionIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the cached {@link PlayerState} of every online player.
+ */
+public final class PlayerStateManager {
+
+    public static final String BYPASS_PERMISSION = "noarmor.bypass";
+
+    private final NoArmorPlugin plugin;
+    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+
+    public PlayerStateManager(NoArmorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the cached state of a player, resolving it if missing
+     */
+    public PlayerState get(Player player) {
+        PlayerState state = states.get(player.getUniqueId());
+        if (state == null) {
+            state = resolve(player);
+        }
+        return state;
+    }
+
+    /**
+     * Check the cached bypass flag of a player
+     */
+    public boolean isBypassing(Player player) {
+        return get(player).isBypass();
+    }
+
+    /**
+     * Re-read everything cached for a player from the server
+     */
+    public PlayerState resolve(Player player) {
+        PlayerState state = states.computeIfAbsent(player.getUniqueId(), PlayerState::new);
+        state.setBypass(player.hasPermission(BYPASS_PERMISSION));
+
+        PolicySet policySet = plugin.getPolicySet();
+        PolicySet.Profile profile = policySet.resolveProfile(player);
+        state.setProfile(profile);
+        state.basePolicy = policySet.resolve(profile, player.getWorld())
+                .with(plugin.getScheduleService().getActiveOverrides());
+        state.regionIndex = policySet.getRegions(player.getWorld());
+
+        if (state.quantityLimits != policySet.getQuantityLimits()) {
+            recount(player, state);
+        }
+        // Indexes change with the config, so running cooldowns are dropped on reload
+        if (state.cooldowns != policySet.getCooldowns()) {
+            state.cooldowns = policySet.getCooldowns();
+            state.cooldownExpiry = new long[state.cooldowns.size()];
+        }
+
+        Location location = player.getLocation();
+        updateRegions(state, location.getBlockX(), location.getBlockY(), location.getBlockZ(), true);
+
+        // The restricted slots may have changed
+        SlotRestrictionListener slotListener = plugin.getSlotRestrictionListener();
+        if (slotListener != null) {
+            slotListener.markDirty(player, state);
+        }
+        return state;
+    }
+
+    /**
+     * Recount the limited materials in a player's inventory from scratch.
+     * Only needed at join, after a reload and when an inventory change
+     * cannot be tracked exactly.
+     */
+    public void recount(Player player, PlayerState state) {
+        QuantityLimits limits = plugin.getPolicySet().getQuantityLimits();
+        state.quantityLimits = limits;
+        state.itemCounts = limits.isEmpty() ? new int[0] : limits.count(player.getInventory().getContents());
+        state.recountPending = false;
+    }
+
+    /**
+     * Mark a player for a recount on the next tick, once the inventory
+     * change that triggered it has been applied. Returns false if a recount
+     * was already pending.
+     */
+    public boolean markRecount(PlayerState state) {
+        if (state.recountPending) {
+            return false;
+        }
+        state.recountPending = true;
+        return true;
+    }
+
+    /**
+     * Track region entry and exit after a move within the same world. The
+     * candidate regions are only looked up again when the chunk changes.
+     */
+    public void updateRegions(Player player, Location to) {
+        PlayerState state = get(player);
+        if (state.regionIndex != null) {
+            updateRegions(state, to.getBlockX(), to.getBlockY(), to.getBlockZ(), false);
+        }
+    }
+
+    private void updateRegions(PlayerState state, int x, int y, int z, boolean force) {
+        RegionIndex index = state.regionIndex;
+        if (index == null) {
+            state.regionCandidates = null;
+            state.regionMask = 0L;
+            state.setPolicy(state.basePolicy);
+            return;
+        }
+
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        boolean chunkChanged = force || state.regionCandidates == null
+                || chunkX != state.regionChunkX || chunkZ != state.regionChunkZ;
+        if (chunkChanged) {
+            state.regionCandidates = index.get(chunkX, chunkZ);
+            state.regionChunkX = chunkX;
+            state.regionChunkZ = chunkZ;
+        }
+
+        Region[] candidates = state.regionCandidates;
+        long mask = 0L;
+        for (int i = 0; i < candidates.length && i < 64; i++) {
+            if (candidates[i].contains(x, y, z)) {
+                mask |= 1L << i;
+            }
+        }
+
+        // Mask bits index into the candidate array, so after a chunk change any
+        // non-empty mask has to be re-applied
+        long previous = state.regionMask;
+        boolean changed = chunkChanged ? (force || previous != 0L || mask != 0L) : mask != previous;
+        if (!changed) {
+            return;
+        }
+
+        state.regionMask = mask;
+        PolicySnapshot policy = state.basePolicy;
+        while (mask != 0L) {
+            int i = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            policy = policy.with(candidates[i].getOverrides());
+        }
+        state.setPolicy(policy);
+    }
+
+    /**
+     * Re-resolve every online player, e.g. after a reload. On Folia each
+     * player is resolved on the region thread that owns them.
+     */
+    public void resolveAll() {
+        PluginScheduler scheduler = plugin.getPluginScheduler();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (scheduler.isFolia()) {
+                scheduler.runFor(player, () -> resolve(player));
+            } else {
+                resolve(player);
+            }
+        }
+    }
+
+    public void remove(UUID uuid) {
+        states.remove(uuid);
+    }
+}
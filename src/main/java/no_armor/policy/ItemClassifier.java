@@ -0,0 +1,156 @@
+package no_armor.policy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.inventory.EquipmentSlot;
+
+/**
+ * Precomputed item categories, built once from the server's material registry.
+ * Each material maps to a bitmask of categories indexed by ordinal, so
+ * classification is a single array read.
+ */
+public final class ItemClassifier {
+
+    public static final int HEAD = 1;
+    public static final int CHEST = 1 << 1;
+    public static final int LEGS = 1 << 2;
+    public static final int FEET = 1 << 3;
+    public static final int BODY = 1 << 4;
+    public static final int WEAPON = 1 << 5;
+    public static final int RANGED = 1 << 6;
+    public static final int CONSUMABLE = 1 << 7;
+    public static final int CONTAINER = 1 << 8;
+    /** Real armor (vanilla armor tags or elytra), not just anything head-wearable */
+    public static final int ARMOR_PIECE = 1 << 9;
+
+    /** Armor a player can wear in one of the four armor slots */
+    public static final int PLAYER_ARMOR = HEAD | CHEST | LEGS | FEET;
+
+    /** Categories of the armor slots, indexed by inventory slot - 36 (feet first) */
+    private static final int[] ARMOR_SLOTS = { FEET, LEGS, CHEST, HEAD };
+
+    private final int[] categories;
+    // Material bitsets (bit n = ordinal n) of the armor pieces for each armor slot
+    private final long[][] armorFamilies;
+
+    ItemClassifier(int[] categories) {
+        this.categories = categories;
+        this.armorFamilies = new long[ARMOR_SLOTS.length][(categories.length + 63) >>> 6];
+        for (int ordinal = 0; ordinal < categories.length; ordinal++) {
+            if ((categories[ordinal] & ARMOR_PIECE) == 0) {
+                continue;
+            }
+            for (int i = 0; i < ARMOR_SLOTS.length; i++) {
+                if ((categories[ordinal] & ARMOR_SLOTS[i]) != 0) {
+                    armorFamilies[i][ordinal >>> 6] |= 1L << ordinal;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the category bitmask of a material
+     */
+    public int categories(Material material) {
+        return material == null ? 0 : categories[material.ordinal()];
+    }
+
+    public boolean is(Material material, int category) {
+        return (categories(material) & category) != 0;
+    }
+
+    public boolean isArmor(Material material) {
+        return is(material, PLAYER_ARMOR);
+    }
+
+    /**
+     * Get the material bitset of armor pieces for an armor slot, indexed by
+     * inventory slot - 36 (0 = feet, 3 = head). Pumpkins, mob heads and other
+     * wearables are left out. Must not be modified.
+     */
+    long[] armorFamily(int index) {
+        return armorFamilies[index];
+    }
+
+    int armorSlotCount() {
+        return armorFamilies.length;
+    }
+
+    /**
+     * Build the table from the registry and equipment-slot data. Must run
+     * after the server has loaded its registries (e.g. in onEnable).
+     */
+    public static ItemClassifier build() {
+        Material[] materials = Material.values();
+        int[] categories = new int[materials.length];
+
+        Tag<Material> swords = itemTag("swords");
+        Tag<Material> axes = itemTag("axes");
+        Tag<Material> spears = itemTag("spears");
+        Tag<Material> bundles = itemTag("bundles");
+        Tag<Material> headArmor = itemTag("head_armor");
+        Tag<Material> chestArmor = itemTag("chest_armor");
+        Tag<Material> legArmor = itemTag("leg_armor");
+        Tag<Material> footArmor = itemTag("foot_armor");
+        // Without the armor tags everything wearable in an armor slot counts
+        boolean armorTags = headArmor != null && chestArmor != null && legArmor != null && footArmor != null;
+
+        for (Material material : materials) {
+            if (material.isLegacy() || !material.isItem() || material.isAir()) {
+                continue;
+            }
+            boolean weaponTagged = isTagged(swords, material) || isTagged(axes, material)
+                    || isTagged(spears, material);
+            boolean containerTagged = Tag.SHULKER_BOXES.isTagged(material) || isTagged(bundles, material);
+            boolean armorTagged = !armorTags || headArmor.isTagged(material) || chestArmor.isTagged(material)
+                    || legArmor.isTagged(material) || footArmor.isTagged(material);
+            categories[material.ordinal()] = classify(material, material.getEquipmentSlot(),
+                    material.isEdible(), weaponTagged, containerTagged, armorTagged);
+        }
+
+        return new ItemClassifier(categories);
+    }
+
+    /**
+     * Work out the category bitmask of one material from its registry data
+     */
+    static int classify(Material material, EquipmentSlot slot, boolean edible,
+            boolean weaponTagged, boolean containerTagged, boolean armorTagged) {
+        int mask = switch (slot) {
+            case HEAD -> HEAD;
+            case CHEST -> CHEST;
+            case LEGS -> LEGS;
+            case FEET -> FEET;
+            case BODY -> BODY;
+            default -> 0;
+        };
+
+        if ((mask & PLAYER_ARMOR) != 0 && (armorTagged || material == Material.ELYTRA)) {
+            mask |= ARMOR_PIECE;
+        }
+        if (weaponTagged || material == Material.TRIDENT || material == Material.MACE) {
+            mask |= WEAPON;
+        }
+        if (material == Material.BOW || material == Material.CROSSBOW || material == Material.TRIDENT) {
+            mask |= RANGED;
+        }
+        if (edible || material == Material.POTION || material == Material.MILK_BUCKET
+                || material == Material.OMINOUS_BOTTLE) {
+            mask |= CONSUMABLE;
+        }
+        if (containerTagged) {
+            mask |= CONTAINER;
+        }
+        return mask;
+    }
+
+    private static Tag<Material> itemTag(String key) {
+        return Bukkit.getTag(Tag.REGISTRY_ITEMS, NamespacedKey.minecraft(key), Material.class);
+    }
+
+    private static boolean isTagged(Tag<Material> tag, Material material) {
+        return tag != null && tag.isTagged(material);
+    }
+}
@@ -0,0 +1,89 @@
+package no_armor.policy;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Compiled cooldowns section: how long a player has to wait between uses of
+ * a material. Like {@link QuantityLimits}, rate-limited materials are
+ * numbered densely so each player only keeps a small array of expiry times.
+ */
+public final class ItemCooldowns {
+
+    public static final ItemCooldowns NONE = new ItemCooldowns(filledIndex(), new long[0]);
+
+    // Cooldown index per material ordinal, -1 if not rate-limited
+    private final int[] indexByMaterial;
+    private final long[] millis;
+
+    private ItemCooldowns(int[] indexByMaterial, long[] millis) {
+        this.indexByMaterial = indexByMaterial;
+        this.millis = millis;
+    }
+
+    public boolean isEmpty() {
+        return millis.length == 0;
+    }
+
+    public int size() {
+        return millis.length;
+    }
+
+    /**
+     * Get the cooldown index of a material, or -1 if it has no cooldown
+     */
+    public int indexOf(Material material) {
+        return material == null ? -1 : indexByMaterial[material.ordinal()];
+    }
+
+    public long getMillis(int index) {
+        return millis[index];
+    }
+
+    /**
+     * Compile the cooldowns section. Keys are material names, values the
+     * cooldown in seconds (fractions allowed).
+     */
+    public static ItemCooldowns compile(ConfigurationSection section, Logger logger) {
+        if (section == null) {
+            return NONE;
+        }
+
+        int[] indexByMaterial = filledIndex();
+        List<Long> millis = new ArrayList<>();
+        for (String key : section.getKeys(false)) {
+            Material material = Material.matchMaterial(key);
+            double seconds = section.getDouble(key, -1);
+            if (material == null || !(section.isInt(key) || section.isDouble(key)) || seconds <= 0) {
+                if (logger != null) {
+                    logger.warning("Ignoring cooldowns entry '" + key + "': needs a material and a positive number of seconds");
+                }
+                continue;
+            }
+            long value = Math.round(seconds * 1000);
+            int index = indexByMaterial[material.ordinal()];
+            if (index >= 0) {
+                millis.set(index, value);
+                continue;
+            }
+            indexByMaterial[material.ordinal()] = millis.size();
+            millis.add(value);
+        }
+
+        if (millis.isEmpty()) {
+            return NONE;
+        }
+        return new ItemCooldowns(indexByMaterial, millis.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static int[] filledIndex() {
+        int[] index = new int[Material.values().length];
+        Arrays.fill(index, -1);
+        return index;
+    }
+}
@@ -0,0 +1,170 @@
+package no_armor.policy;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Compiled allowed-items entries of one config scope, kept as two Material
+ * bitsets (explicitly allowed and explicitly denied) so they can be layered
+ * on top of any snapshot.
+ */
+public final class ItemOverrides {
+
+    static final int WORDS = (Material.values().length + 63) >>> 6;
+
+    public static final ItemOverrides NONE = new ItemOverrides(new long[WORDS], new long[WORDS], true);
+
+    private final long[] allow;
+    private final long[] deny;
+    private final boolean empty;
+
+    private ItemOverrides(long[] allow, long[] deny, boolean empty) {
+        this.allow = allow;
+        this.deny = deny;
+        this.empty = empty;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Apply the overrides to a Material bitset in place
+     */
+    void applyTo(long[] bits) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = (bits[i] & ~deny[i]) | allow[i];
+        }
+    }
+
+    /**
+     * Combine two override sets into one that behaves like applying this set
+     * and then the other
+     */
+    public ItemOverrides then(ItemOverrides next) {
+        if (next.empty) {
+            return this;
+        }
+        if (empty) {
+            return next;
+        }
+        long[] combinedAllow = new long[WORDS];
+        long[] combinedDeny = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            combinedDeny[i] = deny[i] | next.deny[i];
+            combinedAllow[i] = (allow[i] & ~next.deny[i]) | next.allow[i];
+        }
+        return new ItemOverrides(combinedAllow, combinedDeny, false);
+    }
+
+    /**
+     * Compile an allowed-items section. Entries set to false are denied,
+     * entries set to true are allowed and everything else is left alone.
+     * Keys may be material names, wildcards such as "*_helmet" or
+     * "netherite_*", or item tags such as "#minecraft:swords". Wildcards and
+     * tags are expanded against the registry here, and exact material keys
+     * win over them.
+     */
+    public static ItemOverrides compile(ConfigurationSection allowedItems, Logger logger) {
+        if (allowedItems == null) {
+            return NONE;
+        }
+
+        long[] allow = new long[WORDS];
+        long[] deny = new long[WORDS];
+        boolean empty = true;
+        List<String> unknown = new ArrayList<>();
+
+        // Patterns first so exact entries can override them
+        for (String key : allowedItems.getKeys(false)) {
+            if (!isPattern(key)) {
+                continue;
+            }
+            List<Material> materials = expand(key);
+            if (materials.isEmpty()) {
+                unknown.add(key);
+                continue;
+            }
+            boolean allowed = allowedItems.getBoolean(key, true);
+            for (Material material : materials) {
+                set(allow, deny, material, allowed);
+            }
+            empty = false;
+        }
+
+        for (String key : allowedItems.getKeys(false)) {
+            if (isPattern(key)) {
+                continue;
+            }
+            Material material = Material.matchMaterial(key);
+            if (material == null) {
+                unknown.add(key);
+                continue;
+            }
+            set(allow, deny, material, allowedItems.getBoolean(key, true));
+            empty = false;
+        }
+
+        if (!unknown.isEmpty() && logger != null) {
+            logger.warning("Ignoring unknown allowed-items entries: " + String.join(", ", unknown));
+        }
+
+        return empty ? NONE : new ItemOverrides(allow, deny, false);
+    }
+
+    private static boolean isPattern(String key) {
+        return key.startsWith("#") || key.indexOf('*') >= 0;
+    }
+
+    /**
+     * Expand a wildcard or item tag key into the materials it covers
+     */
+    static List<Material> expand(String key) {
+        List<Material> materials = new ArrayList<>();
+        if (key.startsWith("#")) {
+            NamespacedKey tagKey = NamespacedKey.fromString(key.substring(1).toLowerCase(Locale.ROOT));
+            Tag<Material> tag = tagKey != null ? Bukkit.getTag(Tag.REGISTRY_ITEMS, tagKey, Material.class) : null;
+            if (tag != null) {
+                materials.addAll(tag.getValues());
+            }
+            return materials;
+        }
+
+        String glob = key.toLowerCase(Locale.ROOT);
+        if (glob.startsWith("minecraft:")) {
+            glob = glob.substring("minecraft:".length());
+        }
+        Pattern pattern = Pattern.compile(Arrays.stream(glob.split("\\*", -1))
+                .map(Pattern::quote)
+                .collect(Collectors.joining(".*")));
+        for (Material material : Material.values()) {
+            if (!material.isLegacy() && pattern.matcher(material.name().toLowerCase(Locale.ROOT)).matches()) {
+                materials.add(material);
+            }
+        }
+        return materials;
+    }
+
+    private static void set(long[] allow, long[] deny, Material material, boolean allowed) {
+        int ordinal = material.ordinal();
+        long bit = 1L << ordinal;
+        if (allowed) {
+            allow[ordinal >>> 6] |= bit;
+            deny[ordinal >>> 6] &= ~bit;
+        } else {
+            deny[ordinal >>> 6] |= bit;
+            allow[ordinal >>> 6] &= ~bit;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package no_armor.policy;
+
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.CustomModelData;
+import io.papermc.paper.datacomponent.item.PotionContents;
+import net.kyori.adventure.key.Key;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.potion.PotionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Compiled item-rules: decisions that depend on more than the Material, such
+ * as enchantments, custom model data, PDC keys, potion effects or the item
+ * model. Rules are bucketed by Material ordinal, so items without rules pay a
+ * single array read, and conditions read only the data component they test
+ * instead of copying the whole ItemMeta.
+ */
+public final class ItemRules {
+
+    public static final ItemRules NONE = new ItemRules(new Rule[Material.values().length][]);
+
+    private final Rule[][] byMaterial;
+
+    private ItemRules(Rule[][] byMaterial) {
+        this.byMaterial = byMaterial;
+    }
+
+    /**
+     * One rule: all conditions must match for the decision to apply
+     */
+    private record Rule(Predicate<ItemStack>[] conditions, boolean allowed) {
+        boolean matches(ItemStack item) {
+            for (Predicate<ItemStack> condition : conditions) {
+                if (!condition.test(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public boolean hasRules(Material material) {
+        return byMaterial[material.ordinal()] != null;
+    }
+
+    /**
+     * Evaluate the rules of an item in config order. Returns the decision of
+     * the first matching rule, or null if no rule matches.
+     */
+    public Boolean evaluate(ItemStack item) {
+        Rule[] rules = byMaterial[item.getType().ordinal()];
+        if (rules == null) {
+            return null;
+        }
+        for (Rule rule : rules) {
+            if (rule.matches(item)) {
+                return rule.allowed();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compile the item-rules list. Each rule needs a material and at least one
+     * condition; invalid rules are skipped with a warning.
+     */
+    public static ItemRules compile(List<Map<?, ?>> entries, Logger logger) {
+        return compile(entries, logger, ItemRules::customModelData);
+    }
+
+    /**
+     * Compile the item-rules list, reading the first custom-model-data float
+     * of an item (or null) through the given function. Lets tests run without
+     * the server's data component registry.
+     */
+    static ItemRules compile(List<Map<?, ?>> entries, Logger logger,
+            Function<ItemStack, Float> customModelData) {
+        if (entries.isEmpty()) {
+            return NONE;
+        }
+
+        Rule[][] byMaterial = new Rule[Material.values().length][];
+        int index = 0;
+        for (Map<?, ?> entry : entries) {
+            index++;
+            ConfigurationSection section = new MemoryConfiguration().createSection("rule", entry);
+
+            String materialName = section.getString("material");
+            Material material = materialName != null ? Material.matchMaterial(materialName) : null;
+            if (material == null) {
+                warn(logger, index, "unknown or missing material '" + materialName + "'");
+                continue;
+            }
+
+            List<Predicate<ItemStack>> conditions = new ArrayList<>();
+            try {
+                addConditions(section, conditions, customModelData);
+            } catch (IllegalArgumentException e) {
+                warn(logger, index, e.getMessage());
+                continue;
+            }
+            if (conditions.isEmpty()) {
+                warn(logger, index, "no conditions, use allowed-items for plain materials");
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            Predicate<ItemStack>[] array = conditions.toArray(new Predicate[0]);
+            Rule rule = new Rule(array, section.getBoolean("allowed", false));
+
+            Rule[] existing = byMaterial[material.ordinal()];
+            if (existing == null) {
+                byMaterial[material.ordinal()] = new Rule[] { rule };
+            } else {
+                Rule[] extended = Arrays.copyOf(existing, existing.length + 1);
+                extended[existing.length] = rule;
+                byMaterial[material.ordinal()] = extended;
+            }
+        }
+
+        return new ItemRules(byMaterial);
+    }
+
+    // Cheapest checks first so non-matching items bail out early
+    private static void addConditions(ConfigurationSection section, List<Predicate<ItemStack>> conditions,
+            Function<ItemStack, Float> customModelData) {
+        if (section.contains("pdc-key")) {
+            NamespacedKey key = parseKey(section.getString("pdc-key"), "pdc-key");
+            conditions.add(item -> item.getPersistentDataContainer().has(key));
+        }
+
+        ConfigurationSection enchantments = section.getConfigurationSection("enchantments");
+        if (enchantments != null) {
+            for (String name : enchantments.getKeys(false)) {
+                Enchantment enchantment = Registry.ENCHANTMENT.get(parseKey(name, "enchantment"));
+                if (enchantment == null) {
+                    throw new IllegalArgumentException("unknown enchantment '" + name + "'");
+                }
+                int minLevel = enchantments.getInt(name, 1);
+                conditions.add(item -> item.getEnchantmentLevel(enchantment) >= minLevel);
+            }
+        }
+
+        if (section.contains("custom-model-data")) {
+            float value = (float) section.getDouble("custom-model-data");
+            conditions.add(item -> {
+                Float data = customModelData.apply(item);
+                return data != null && data == value;
+            });
+        }
+
+        if (section.contains("item-model")) {
+            String model = parseKey(section.getString("item-model"), "item-model").asString();
+            conditions.add(item -> {
+                Key data = item.getData(DataComponentTypes.ITEM_MODEL);
+                return data != null && data.asString().equals(model);
+            });
+        }
+
+        if (section.contains("potion-effect")) {
+            String name = section.getString("potion-effect");
+            PotionEffectType effect = Registry.EFFECT.get(parseKey(name, "potion-effect"));
+            if (effect == null) {
+                throw new IllegalArgumentException("unknown potion effect '" + name + "'");
+            }
+            conditions.add(item -> hasPotionEffect(item, effect));
+        }
+    }
+
+    private static Float customModelData(ItemStack item) {
+        CustomModelData data = item.getData(DataComponentTypes.CUSTOM_MODEL_DATA);
+        return data != null && !data.floats().isEmpty() ? data.floats().get(0) : null;
+    }
+
+    private static boolean hasPotionEffect(ItemStack item, PotionEffectType effect) {
+        PotionContents contents = item.getData(DataComponentTypes.POTION_CONTENTS);
+        if (contents == null) {
+            return false;
+        }
+        PotionType base = contents.potion();
+        if (base != null) {
+            for (PotionEffect potionEffect : base.getPotionEffects()) {
+                if (potionEffect.getType().equals(effect)) {
+                    return true;
+                }
+            }
+        }
+        for (PotionEffect potionEffect : contents.customEffects()) {
+            if (potionEffect.getType().equals(effect)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static NamespacedKey parseKey(String value, String field) {
+        NamespacedKey key = value != null ? NamespacedKey.fromString(value.toLowerCase(Locale.ROOT)) : null;
+        if (key == null) {
+            throw new IllegalArgumentException("invalid " + field + " '" + value + "'");
+        }
+        return key;
+    }
+
+    private static void warn(Logger logger, int index, String reason) {
+        if (logger != null) {
+            logger.warning("Ignoring item-rules entry #" + index + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package no_armor.policy;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Human-readable summary of what changed between two compiled snapshots,
+ * logged after a reload so operators can confirm an edit did what they meant.
+ */
+public final class PolicyDiff {
+
+    private PolicyDiff() {
+    }
+
+    /**
+     * Describe the material and slot changes from one snapshot to another.
+     * Returns an empty list if nothing changed.
+     */
+    public static List<String> describe(PolicySnapshot previous, PolicySnapshot current) {
+        List<String> lines = new ArrayList<>();
+        List<String> denied = new ArrayList<>();
+        List<String> allowed = new ArrayList<>();
+        for (Material material : Material.values()) {
+            boolean before = previous.isAllowed(material);
+            boolean after = current.isAllowed(material);
+            if (before && !after) {
+                denied.add(material.name().toLowerCase(Locale.ROOT));
+            } else if (!before && after) {
+                allowed.add(material.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        if (!denied.isEmpty()) {
+            lines.add("Now blocked: " + String.join(", ", denied));
+        }
+        if (!allowed.isEmpty()) {
+            lines.add("Now allowed: " + String.join(", ", allowed));
+        }
+
+        long addedSlots = current.getRestrictedSlots() & ~previous.getRestrictedSlots();
+        long removedSlots = previous.getRestrictedSlots() & ~current.getRestrictedSlots();
+        if (addedSlots != 0) {
+            lines.add("Slots now restricted: " + slotList(addedSlots));
+        }
+        if (removedSlots != 0) {
+            lines.add("Slots now free: " + slotList(removedSlots));
+        }
+        return lines;
+    }
+
+    private static String slotList(long mask) {
+        StringBuilder builder = new StringBuilder();
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            if (!builder.isEmpty()) {
+                builder.append(", ");
+            }
+            builder.append(Long.numberOfTrailingZeros(bits));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,235 @@
+package no_armor.policy;
+
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * All compiled policies of one configuration: the global defaults, one
+ * snapshot per permission profile and the per-world overrides of each.
+ * Profiles and worlds are resolved once per player (at join and on world
+ * change), so event handlers never pay for the number of profiles or worlds.
+ */
+public final class PolicySet {
+
+    public static final String PROFILE_PERMISSION_PREFIX = "noarmor.profile.";
+
+    private final PolicySnapshot defaults;
+    private final Profile[] profiles;
+    private final Map<String, PolicySnapshot[]> worlds;
+    private final Map<String, RegionIndex> regions;
+    private final ScheduleTimeline schedule;
+    private final QuantityLimits quantityLimits;
+    private final ItemCooldowns cooldowns;
+
+    private PolicySet(PolicySnapshot defaults, Profile[] profiles, Map<String, PolicySnapshot[]> worlds,
+            Map<String, RegionIndex> regions, ScheduleTimeline schedule, QuantityLimits quantityLimits,
+            ItemCooldowns cooldowns) {
+        this.defaults = defaults;
+        this.profiles = profiles;
+        this.worlds = worlds;
+        this.regions = regions;
+        this.schedule = schedule;
+        this.quantityLimits = quantityLimits;
+        this.cooldowns = cooldowns;
+    }
+
+    /**
+     * A named restriction profile attached via noarmor.profile.&lt;name&gt;
+     */
+    public record Profile(String name, String permission, int index, PolicySnapshot policy) {
+    }
+
+    public PolicySnapshot getDefaults() {
+        return defaults;
+    }
+
+    public List<Profile> getProfiles() {
+        return List.of(profiles);
+    }
+
+    /**
+     * Find the first profile (in config order) the player has permission for,
+     * or null if the defaults apply
+     */
+    public Profile resolveProfile(Player player) {
+        for (Profile profile : profiles) {
+            if (player.hasPermission(profile.permission())) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the snapshot for a profile (null for the defaults) in a world
+     */
+    public PolicySnapshot resolve(Profile profile, World world) {
+        PolicySnapshot[] overrides = world != null ? worlds.get(world.getName().toLowerCase(Locale.ROOT)) : null;
+        if (overrides != null) {
+            return overrides[profile == null ? 0 : profile.index() + 1];
+        }
+        return profile == null ? defaults : profile.policy();
+    }
+
+    /**
+     * Get the region index of a world, or null if the world has no regions
+     */
+    public RegionIndex getRegions(World world) {
+        return world != null ? regions.get(world.getName().toLowerCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * Get the compiled weekly schedule windows
+     */
+    public ScheduleTimeline getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Get the compiled per-material carry limits
+     */
+    public QuantityLimits getQuantityLimits() {
+        return quantityLimits;
+    }
+
+    /**
+     * Get the compiled per-material use cooldowns
+     */
+    public ItemCooldowns getCooldowns() {
+        return cooldowns;
+    }
+
+    /**
+     * Compile the default-policy, allowed-items, item-rules, restricted-slots,
+     * profiles, worlds, regions, schedules, quantity-limits and cooldowns
+     * sections of a config. Each profile inherits the global allowed-items and
+     * overrides the entries it lists; world overrides apply on top of every
+     * profile. Item rules, quantity limits and cooldowns are global.
+     */
+    public static PolicySet compile(ConfigurationSection config, Logger logger) {
+        boolean defaultAllow = compileDefaultAllow(config, logger);
+        PolicySnapshot defaults = PolicySnapshot.compile(config.getConfigurationSection("allowed-items"),
+                defaultAllow, logger)
+                .withRestrictedSlots(compileSlots(config, logger))
+                .withRules(ItemRules.compile(config.getMapList("item-rules"), logger));
+
+        List<Profile> profiles = new ArrayList<>();
+        ConfigurationSection profileSection = config.getConfigurationSection("profiles");
+        if (profileSection != null) {
+            for (String name : profileSection.getKeys(false)) {
+                ConfigurationSection section = profileSection.getConfigurationSection(name);
+                if (section == null) {
+                    if (logger != null) {
+                        logger.warning("Ignoring profile '" + name + "': not a section");
+                    }
+                    continue;
+                }
+                PolicySnapshot policy = PolicySnapshot.compile(defaults,
+                        section.getConfigurationSection("allowed-items"), logger);
+                if (section.contains("restricted-slots")) {
+                    policy = policy.withRestrictedSlots(compileSlots(section, logger));
+                }
+                String key = name.toLowerCase(Locale.ROOT);
+                profiles.add(new Profile(key, PROFILE_PERMISSION_PREFIX + key, profiles.size(), policy));
+            }
+        }
+
+        Map<String, PolicySnapshot[]> worlds = new HashMap<>();
+        ConfigurationSection worldSection = config.getConfigurationSection("worlds");
+        if (worldSection != null) {
+            for (String name : worldSection.getKeys(false)) {
+                ConfigurationSection section = worldSection.getConfigurationSection(name);
+                if (section == null) {
+                    if (logger != null) {
+                        logger.warning("Ignoring world override '" + name + "': not a section");
+                    }
+                    continue;
+                }
+                PolicySnapshot[] overrides = new PolicySnapshot[profiles.size() + 1];
+                overrides[0] = compileWorld(defaults, section, logger);
+                for (Profile profile : profiles) {
+                    // Entries were already validated for the defaults
+                    overrides[profile.index() + 1] = compileWorld(profile.policy(), section, null);
+                }
+                worlds.put(name.toLowerCase(Locale.ROOT), overrides);
+            }
+        }
+
+        return new PolicySet(defaults, profiles.toArray(new Profile[0]), Map.copyOf(worlds),
+                compileRegions(config.getConfigurationSection("regions"), logger),
+                ScheduleTimeline.compile(config.getConfigurationSection("schedules"),
+                        config.getString("schedule-timezone"), logger),
+                QuantityLimits.compile(config.getConfigurationSection("quantity-limits"), logger),
+                ItemCooldowns.compile(config.getConfigurationSection("cooldowns"), logger));
+    }
+
+    private static Map<String, RegionIndex> compileRegions(ConfigurationSection regionSection, Logger logger) {
+        if (regionSection == null) {
+            return Map.of();
+        }
+
+        Map<String, List<Region>> byWorld = new HashMap<>();
+        for (String name : regionSection.getKeys(false)) {
+            ConfigurationSection section = regionSection.getConfigurationSection(name);
+            String world = section != null ? section.getString("world") : null;
+            List<Integer> min = section != null ? section.getIntegerList("min") : List.of();
+            List<Integer> max = section != null ? section.getIntegerList("max") : List.of();
+            if (world == null || min.size() != 3 || max.size() != 3) {
+                if (logger != null) {
+                    logger.warning("Ignoring region '" + name + "': needs world, min: [x, y, z] and max: [x, y, z]");
+                }
+                continue;
+            }
+
+            Region region = new Region(name, world.toLowerCase(Locale.ROOT), min.get(0), min.get(1), min.get(2),
+                    max.get(0), max.get(1), max.get(2),
+                    ItemOverrides.compile(section.getConfigurationSection("allowed-items"), logger));
+            if (RegionIndex.chunkCount(region) > RegionIndex.MAX_CHUNKS_PER_REGION) {
+                if (logger != null) {
+                    logger.warning("Ignoring region '" + name + "': covers more than "
+                            + RegionIndex.MAX_CHUNKS_PER_REGION + " chunks");
+                }
+                continue;
+            }
+            byWorld.computeIfAbsent(region.getWorld(), key -> new ArrayList<>()).add(region);
+        }
+
+        Map<String, RegionIndex> regions = new HashMap<>();
+        byWorld.forEach((world, list) -> regions.put(world, RegionIndex.build(list)));
+        return Map.copyOf(regions);
+    }
+
+    private static PolicySnapshot compileWorld(PolicySnapshot base, ConfigurationSection section, Logger logger) {
+        PolicySnapshot policy = PolicySnapshot.compile(base, section.getConfigurationSection("allowed-items"), logger);
+        if (section.contains("restricted-slots")) {
+            policy = policy.withRestrictedSlots(compileSlots(section, logger));
+        }
+        return policy;
+    }
+
+    private static boolean compileDefaultAllow(ConfigurationSection config, Logger logger) {
+        String mode = config.getString("default-policy", "allow");
+        if (mode.equalsIgnoreCase("deny")) {
+            return false;
+        }
+        if (!mode.equalsIgnoreCase("allow") && logger != null) {
+            logger.warning("Unknown default-policy '" + mode + "', expected allow or deny; using allow");
+        }
+        return true;
+    }
+
+    private static long compileSlots(ConfigurationSection section, Logger logger) {
+        if (!section.getBoolean("restricted-slots.enabled", true)) {
+            return 0L;
+        }
+        return SlotLayout.parse(section.getStringList("restricted-slots.slots"), logger);
+    }
+}
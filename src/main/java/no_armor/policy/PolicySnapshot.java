@@ -0,0 +1,180 @@
+package no_armor.policy;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.logging.Logger;
+
+/**
+ * Immutable, compiled view of the allowed-items, item-rules and
+ * restricted-slots config sections. Each material maps to one bit indexed by its ordinal and each
+ * inventory slot to one bit of a long, so lookups are a single bit test with
+ * no allocation.
+ */
+public final class PolicySnapshot {
+
+    private static final int MATERIAL_COUNT = Material.values().length;
+    private static final int ARMOR_UNKNOWN = -1;
+
+    private final long[] allowed;
+    private final long restrictedSlots;
+    private final ItemRules rules;
+    // Worked out from allowed on first use; racing threads compute the same value
+    private int restrictedArmor = ARMOR_UNKNOWN;
+
+    private PolicySnapshot(long[] allowed, long restrictedSlots, ItemRules rules) {
+        this.allowed = allowed;
+        this.restrictedSlots = restrictedSlots;
+        this.rules = rules;
+    }
+
+    private PolicySnapshot(long[] allowed, long restrictedSlots, ItemRules rules, int restrictedArmor) {
+        this(allowed, restrictedSlots, rules);
+        this.restrictedArmor = restrictedArmor;
+    }
+
+    /**
+     * Check if a material is allowed by this snapshot
+     */
+    public boolean isAllowed(Material material) {
+        if (material == null) {
+            return true;
+        }
+        int ordinal = material.ordinal();
+        return (allowed[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Check if an item stack is allowed. Item rules for its material are
+     * evaluated first; materials without rules cost the same as
+     * {@link #isAllowed(Material)}.
+     */
+    public boolean isAllowed(ItemStack item) {
+        if (item == null) {
+            return true;
+        }
+        Material material = item.getType();
+        if (rules.hasRules(material)) {
+            Boolean decision = rules.evaluate(item);
+            if (decision != null) {
+                return decision;
+            }
+        }
+        return isAllowed(material);
+    }
+
+    /**
+     * Get the restricted inventory slots as a bitmask (bit n = slot n)
+     */
+    public long getRestrictedSlots() {
+        return restrictedSlots;
+    }
+
+    /**
+     * Check if an inventory slot is restricted by this snapshot
+     */
+    public boolean isSlotRestricted(int slot) {
+        return slot >= 0 && slot < 64 && (restrictedSlots & (1L << slot)) != 0;
+    }
+
+    /**
+     * Get the armor slots where nothing wearable is allowed, as a four-bit
+     * mask indexed by inventory slot - 36 (bit 0 = boots, bit 3 = helmet).
+     * Computed once per snapshot from the classifier's armor families.
+     */
+    public int getRestrictedArmorSlots(ItemClassifier classifier) {
+        int mask = restrictedArmor;
+        if (mask == ARMOR_UNKNOWN) {
+            mask = 0;
+            for (int i = 0; i < classifier.armorSlotCount(); i++) {
+                if (!intersects(allowed, classifier.armorFamily(i))) {
+                    mask |= 1 << i;
+                }
+            }
+            restrictedArmor = mask;
+        }
+        return mask;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        for (int i = 0; i < words; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy this snapshot with a different restricted-slot mask
+     */
+    public PolicySnapshot withRestrictedSlots(long restrictedSlots) {
+        return new PolicySnapshot(allowed, restrictedSlots, rules, restrictedArmor);
+    }
+
+    /**
+     * Copy this snapshot with different item rules
+     */
+    public PolicySnapshot withRules(ItemRules rules) {
+        return new PolicySnapshot(allowed, restrictedSlots, rules, restrictedArmor);
+    }
+
+    /**
+     * Compile the allowed-items section into a snapshot. Materials that are
+     * not listed default to allowed.
+     */
+    public static PolicySnapshot compile(ConfigurationSection allowedItems, Logger logger) {
+        return compile(null, allowedItems, logger);
+    }
+
+    /**
+     * Compile a sparse allowed-items section into a snapshot. With
+     * defaultAllow the section is a deny-list; without it every item except
+     * air starts blocked and the section is an allow-list.
+     */
+    public static PolicySnapshot compile(ConfigurationSection allowedItems, boolean defaultAllow, Logger logger) {
+        return compile(defaultAllow ? allowAll() : denyAll(), allowedItems, logger);
+    }
+
+    /**
+     * Compile an allowed-items section on top of a base snapshot. Materials
+     * that are not listed keep the base decision, and the restricted slots
+     * are inherited from the base.
+     */
+    public static PolicySnapshot compile(PolicySnapshot base, ConfigurationSection allowedItems, Logger logger) {
+        return (base != null ? base : allowAll()).with(ItemOverrides.compile(allowedItems, logger));
+    }
+
+    /**
+     * Copy this snapshot with item overrides applied on top
+     */
+    public PolicySnapshot with(ItemOverrides overrides) {
+        if (overrides.isEmpty()) {
+            return this;
+        }
+        long[] bits = allowed.clone();
+        overrides.applyTo(bits);
+        return new PolicySnapshot(bits, restrictedSlots, rules);
+    }
+
+    private static PolicySnapshot allowAll() {
+        long[] bits = new long[ItemOverrides.WORDS];
+        for (int ordinal = 0; ordinal < MATERIAL_COUNT; ordinal++) {
+            bits[ordinal >>> 6] |= 1L << ordinal;
+        }
+        return new PolicySnapshot(bits, 0L, ItemRules.NONE);
+    }
+
+    private static PolicySnapshot denyAll() {
+        // Air stays allowed so empty hands and slots never count as restricted
+        long[] bits = new long[ItemOverrides.WORDS];
+        for (Material material : Material.values()) {
+            if (material.isAir()) {
+                bits[material.ordinal() >>> 6] |= 1L << material.ordinal();
+            }
+        }
+        return new PolicySnapshot(bits, 0L, ItemRules.NONE);
+    }
+}
@@ -0,0 +1,119 @@
+package no_armor.policy;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Compiled quantity-limits section: the most of a material a player may
+ * carry. Limited materials are numbered densely, so a player's counters are
+ * a small int array and a lookup for an unlimited material is one array read.
+ */
+public final class QuantityLimits {
+
+    public static final QuantityLimits NONE = new QuantityLimits(filledIndex(), new Material[0], new int[0]);
+
+    // Counter index per material ordinal, -1 if unlimited
+    private final int[] indexByMaterial;
+    private final Material[] materials;
+    private final int[] limits;
+
+    private QuantityLimits(int[] indexByMaterial, Material[] materials, int[] limits) {
+        this.indexByMaterial = indexByMaterial;
+        this.materials = materials;
+        this.limits = limits;
+    }
+
+    public boolean isEmpty() {
+        return limits.length == 0;
+    }
+
+    /**
+     * Number of limited materials, i.e. the size of a counter array
+     */
+    public int size() {
+        return limits.length;
+    }
+
+    /**
+     * Get the counter index of a material, or -1 if it is not limited
+     */
+    public int indexOf(Material material) {
+        return material == null ? -1 : indexByMaterial[material.ordinal()];
+    }
+
+    public Material getMaterial(int index) {
+        return materials[index];
+    }
+
+    public int getLimit(int index) {
+        return limits[index];
+    }
+
+    /**
+     * Count the limited materials in a set of inventory contents
+     */
+    public int[] count(ItemStack[] contents) {
+        int[] counts = new int[limits.length];
+        for (ItemStack item : contents) {
+            if (item == null) {
+                continue;
+            }
+            int index = indexByMaterial[item.getType().ordinal()];
+            if (index >= 0) {
+                counts[index] += item.getAmount();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Compile the quantity-limits section. Keys are material names, values
+     * the maximum amount a player may carry; invalid entries are skipped with
+     * a warning.
+     */
+    public static QuantityLimits compile(ConfigurationSection section, Logger logger) {
+        if (section == null) {
+            return NONE;
+        }
+
+        int[] indexByMaterial = filledIndex();
+        List<Material> materials = new ArrayList<>();
+        List<Integer> limits = new ArrayList<>();
+        for (String key : section.getKeys(false)) {
+            Material material = Material.matchMaterial(key);
+            int limit = section.getInt(key, -1);
+            if (material == null || !section.isInt(key) || limit < 0) {
+                if (logger != null) {
+                    logger.warning("Ignoring quantity-limits entry '" + key + "': needs a material and a limit of 0 or more");
+                }
+                continue;
+            }
+            int index = indexByMaterial[material.ordinal()];
+            if (index >= 0) {
+                limits.set(index, limit);
+                continue;
+            }
+            indexByMaterial[material.ordinal()] = materials.size();
+            materials.add(material);
+            limits.add(limit);
+        }
+
+        if (materials.isEmpty()) {
+            return NONE;
+        }
+        return new QuantityLimits(indexByMaterial, materials.toArray(new Material[0]),
+                limits.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int[] filledIndex() {
+        int[] index = new int[Material.values().length];
+        Arrays.fill(index, -1);
+        return index;
+    }
+}
@@ -0,0 +1,65 @@
+package no_armor.policy;
+
+/**
+ * A cuboid area of one world with its own item overrides.
+ */
+public final class Region {
+
+    private final String name;
+    private final String world;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+    private final ItemOverrides overrides;
+
+    public Region(String name, String world, int x1, int y1, int z1, int x2, int y2, int z2,
+            ItemOverrides overrides) {
+        this.name = name;
+        this.world = world;
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+        this.overrides = overrides;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public ItemOverrides getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Check if a block position lies inside this region (bounds inclusive)
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    int minChunkX() {
+        return minX >> 4;
+    }
+
+    int maxChunkX() {
+        return maxX >> 4;
+    }
+
+    int minChunkZ() {
+        return minZ >> 4;
+    }
+
+    int maxChunkZ() {
+        return maxZ >> 4;
+    }
+}
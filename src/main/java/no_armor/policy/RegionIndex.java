@@ -0,0 +1,111 @@
+package no_armor.policy;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Chunk-keyed spatial index of the regions of one world. Maps a packed chunk
+ * coordinate to the regions overlapping that chunk with an open-addressing
+ * table over primitive long keys, so a lookup never boxes or allocates.
+ */
+public final class RegionIndex {
+
+    private static final Region[] NONE = new Region[0];
+
+    /** Regions covering more chunks than this are rejected at compile time */
+    public static final int MAX_CHUNKS_PER_REGION = 1 << 16;
+
+    private long[] keys;
+    private Region[][] values;
+    private int size;
+
+    private RegionIndex() {
+        keys = new long[16];
+        values = new Region[16][];
+    }
+
+    /**
+     * Get the regions overlapping a chunk (never null)
+     */
+    public Region[] get(int chunkX, int chunkZ) {
+        long key = key(chunkX, chunkZ);
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Build an index from regions of a single world
+     */
+    public static RegionIndex build(List<Region> regions) {
+        RegionIndex index = new RegionIndex();
+        for (Region region : regions) {
+            for (int cx = region.minChunkX(); cx <= region.maxChunkX(); cx++) {
+                for (int cz = region.minChunkZ(); cz <= region.maxChunkZ(); cz++) {
+                    index.add(key(cx, cz), region);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Number of chunks a region touches
+     */
+    static long chunkCount(Region region) {
+        return (long) (region.maxChunkX() - region.minChunkX() + 1) * (region.maxChunkZ() - region.minChunkZ() + 1);
+    }
+
+    private void add(long key, Region region) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                Region[] existing = values[i];
+                Region[] extended = Arrays.copyOf(existing, existing.length + 1);
+                extended[existing.length] = region;
+                values[i] = extended;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = new Region[] { region };
+        size++;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Region[][] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Region[oldValues.length * 2][];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == null) {
+                continue;
+            }
+            int i = mix(oldKeys[j]) & mask;
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
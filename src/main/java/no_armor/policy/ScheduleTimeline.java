@@ -0,0 +1,222 @@
+package no_armor.policy;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * Compiled schedules section: weekly time windows flattened into a sorted
+ * timeline of minute-of-week boundaries. Each segment between two
+ * boundaries carries the combined overrides of every window active in it,
+ * so switching state is an array read at each boundary instead of clock
+ * logic in event handlers.
+ */
+public final class ScheduleTimeline {
+
+    public static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+
+    public static final ScheduleTimeline NONE = new ScheduleTimeline(ZoneId.systemDefault(),
+            new int[0], new ItemOverrides[0], new String[0][]);
+
+    private final ZoneId zone;
+    private final int[] boundaries;
+    private final ItemOverrides[] overrides;
+    private final String[][] activeNames;
+
+    private ScheduleTimeline(ZoneId zone, int[] boundaries, ItemOverrides[] overrides, String[][] activeNames) {
+        this.zone = zone;
+        this.boundaries = boundaries;
+        this.overrides = overrides;
+        this.activeNames = activeNames;
+    }
+
+    /**
+     * One weekly occurrence of a window, in minutes since Monday 00:00
+     */
+    private record Interval(int start, int length) {
+        boolean contains(int minute) {
+            return Math.floorMod(minute - start, MINUTES_PER_WEEK) < length;
+        }
+    }
+
+    private record Window(String name, Interval[] intervals, ItemOverrides overrides) {
+    }
+
+    public boolean isEmpty() {
+        return boundaries.length == 0;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Find the segment a minute of the week falls into, or -1 if there are
+     * no windows
+     */
+    public int segmentAt(int minuteOfWeek) {
+        if (boundaries.length == 0) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(boundaries, minuteOfWeek);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        // Before the first boundary we are still in the last segment of last week
+        return index < 0 ? boundaries.length - 1 : index;
+    }
+
+    public int segmentAt(ZonedDateTime time) {
+        return segmentAt(minuteOfWeek(time.withZoneSameInstant(zone)));
+    }
+
+    /**
+     * The combined overrides of the windows active in a segment
+     */
+    public ItemOverrides getOverrides(int segment) {
+        return segment < 0 ? ItemOverrides.NONE : overrides[segment];
+    }
+
+    /**
+     * The names of the windows active in a segment
+     */
+    public List<String> getActiveNames(int segment) {
+        return segment < 0 ? List.of() : List.of(activeNames[segment]);
+    }
+
+    /**
+     * The wall-clock time at which a segment ends, or null if there are no
+     * windows
+     */
+    public ZonedDateTime getSegmentEnd(int segment, ZonedDateTime now) {
+        if (segment < 0) {
+            return null;
+        }
+        ZonedDateTime local = now.withZoneSameInstant(zone).truncatedTo(ChronoUnit.MINUTES);
+        int next = boundaries[(segment + 1) % boundaries.length];
+        int delta = Math.floorMod(next - minuteOfWeek(local), MINUTES_PER_WEEK);
+        return local.plusMinutes(delta == 0 ? MINUTES_PER_WEEK : delta);
+    }
+
+    static int minuteOfWeek(ZonedDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 * 60 + time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Compile the schedules section. Each window lists days, a start and an
+     * end time (HH:mm, an end at or before the start runs past midnight) and
+     * the allowed-items applied while it is active. Overlapping windows apply
+     * in config order.
+     */
+    public static ScheduleTimeline compile(ConfigurationSection schedules, String timezone, Logger logger) {
+        ZoneId zone = ZoneId.systemDefault();
+        if (timezone != null && !timezone.isBlank()) {
+            try {
+                zone = ZoneId.of(timezone);
+            } catch (RuntimeException e) {
+                if (logger != null) {
+                    logger.warning("Unknown schedule-timezone '" + timezone + "', using " + zone);
+                }
+            }
+        }
+        if (schedules == null) {
+            return NONE;
+        }
+
+        List<Window> windows = new ArrayList<>();
+        for (String name : schedules.getKeys(false)) {
+            ConfigurationSection section = schedules.getConfigurationSection(name);
+            try {
+                if (section == null) {
+                    throw new IllegalArgumentException("not a section");
+                }
+                windows.add(compileWindow(name, section, logger));
+            } catch (IllegalArgumentException e) {
+                if (logger != null) {
+                    logger.warning("Ignoring schedule '" + name + "': " + e.getMessage());
+                }
+            }
+        }
+        if (windows.isEmpty()) {
+            return new ScheduleTimeline(zone, new int[0], new ItemOverrides[0], new String[0][]);
+        }
+
+        TreeSet<Integer> points = new TreeSet<>();
+        for (Window window : windows) {
+            for (Interval interval : window.intervals()) {
+                points.add(interval.start());
+                points.add((interval.start() + interval.length()) % MINUTES_PER_WEEK);
+            }
+        }
+
+        int[] boundaries = points.stream().mapToInt(Integer::intValue).toArray();
+        ItemOverrides[] overrides = new ItemOverrides[boundaries.length];
+        String[][] activeNames = new String[boundaries.length][];
+        for (int i = 0; i < boundaries.length; i++) {
+            ItemOverrides combined = ItemOverrides.NONE;
+            List<String> names = new ArrayList<>();
+            for (Window window : windows) {
+                for (Interval interval : window.intervals()) {
+                    if (interval.contains(boundaries[i])) {
+                        combined = combined.then(window.overrides());
+                        names.add(window.name());
+                        break;
+                    }
+                }
+            }
+            overrides[i] = combined;
+            activeNames[i] = names.toArray(new String[0]);
+        }
+        return new ScheduleTimeline(zone, boundaries, overrides, activeNames);
+    }
+
+    private static Window compileWindow(String name, ConfigurationSection section, Logger logger) {
+        int start = parseTime(section.getString("start"));
+        int end = parseTime(section.getString("end"));
+        int length = end > start ? end - start : end + 24 * 60 - start;
+
+        List<String> days = section.getStringList("days");
+        if (days.isEmpty()) {
+            days = List.of("monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday");
+        }
+        List<Interval> intervals = new ArrayList<>();
+        for (String day : days) {
+            DayOfWeek dayOfWeek;
+            try {
+                dayOfWeek = DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown day '" + day + "'");
+            }
+            intervals.add(new Interval((dayOfWeek.getValue() - 1) * 24 * 60 + start, length));
+        }
+
+        return new Window(name, intervals.toArray(new Interval[0]),
+                ItemOverrides.compile(section.getConfigurationSection("allowed-items"), logger));
+    }
+
+    private static int parseTime(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("needs start and end times (HH:mm)");
+        }
+        String[] parts = value.trim().split(":");
+        try {
+            int hour = Integer.parseInt(parts[0]);
+            int minute = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            if (parts.length > 2 || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+                throw new NumberFormatException();
+            }
+            return hour * 60 + minute;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid time '" + value + "', expected HH:mm");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package no_armor.policy;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Parses restricted-slot entries into a slot bitmask (bit n = slot n).
+ * Supports single slots (5), ranges (0-8) and the keywords hotbar, main,
+ * armor and offhand.
+ */
+public final class SlotLayout {
+
+    // Inventory slot constants
+    public static final int HOTBAR_START = 0;
+    public static final int HOTBAR_END = 8;
+    public static final int MAIN_INV_START = 9;
+    public static final int MAIN_INV_END = 35;
+    public static final int BOOTS_SLOT = 36;
+    public static final int LEGGINGS_SLOT = 37;
+    public static final int CHESTPLATE_SLOT = 38;
+    public static final int HELMET_SLOT = 39;
+    public static final int OFFHAND_SLOT = 40;
+
+    private SlotLayout() {
+    }
+
+    /**
+     * Parse a list of slot entries into a bitmask. Invalid entries and slots
+     * outside 0-40 are skipped with a warning.
+     */
+    public static long parse(List<String> entries, Logger logger) {
+        long mask = 0L;
+        for (String entry : entries) {
+            mask |= parseEntry(entry, logger);
+        }
+        return mask;
+    }
+
+    private static long parseEntry(String entry, Logger logger) {
+        entry = entry.trim();
+        if (entry.isEmpty())
+            return 0L;
+
+        try {
+            if (entry.contains("-")) {
+                String[] parts = entry.split("-");
+                return range(entry, Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()), logger);
+            } else if (entry.equalsIgnoreCase("hotbar")) {
+                return range(HOTBAR_START, HOTBAR_END);
+            } else if (entry.equalsIgnoreCase("main")) {
+                return range(MAIN_INV_START, MAIN_INV_END);
+            } else if (entry.equalsIgnoreCase("armor")) {
+                return range(BOOTS_SLOT, HELMET_SLOT);
+            } else if (entry.equalsIgnoreCase("offhand")) {
+                return 1L << OFFHAND_SLOT;
+            } else {
+                int slot = Integer.parseInt(entry);
+                return range(entry, slot, slot, logger);
+            }
+        } catch (NumberFormatException e) {
+            if (logger != null) {
+                logger.warning("Invalid slot config entry: " + entry);
+            }
+            return 0L;
+        }
+    }
+
+    // Keep the part of a configured range inside 0-40 and warn about the rest
+    private static long range(String entry, int start, int end, Logger logger) {
+        if ((start < 0 || end > OFFHAND_SLOT) && logger != null) {
+            logger.warning("Skipping slots outside 0-" + OFFHAND_SLOT + " in slot config entry: " + entry);
+        }
+        return range(start, end);
+    }
+
+    private static long range(int start, int end) {
+        long mask = 0L;
+        for (int i = Math.max(start, 0); i <= Math.min(end, OFFHAND_SLOT); i++) {
+            mask |= 1L << i;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,37 @@
+package no_armor;
+
+import no_armor.policy.ItemCooldowns;
+import org.bukkit.Material;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compiling item cooldowns.
+ */
+class ItemCooldownsTest {
+
+    @Test
+    @DisplayName("Cooldowns are compiled to milliseconds with dense indexes")
+    void compileCooldowns() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("cooldowns.ender_pearl", 10);
+        config.set("cooldowns.wind_charge", 2.5);
+        config.set("cooldowns.golden_apple", 0);
+        config.set("cooldowns.not_an_item", 5);
+
+        ItemCooldowns cooldowns = ItemCooldowns.compile(config.getConfigurationSection("cooldowns"), null);
+        assertEquals(2, cooldowns.size());
+        assertEquals(10_000L, cooldowns.getMillis(cooldowns.indexOf(Material.ENDER_PEARL)));
+        assertEquals(2_500L, cooldowns.getMillis(cooldowns.indexOf(Material.WIND_CHARGE)));
+        assertEquals(-1, cooldowns.indexOf(Material.GOLDEN_APPLE));
+    }
+
+    @Test
+    @DisplayName("Missing section compiles to no cooldowns")
+    void missingSection() {
+        assertTrue(ItemCooldowns.compile(null, null).isEmpty());
+    }
+}
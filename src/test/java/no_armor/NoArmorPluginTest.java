@@ -1,7 +1,8 @@
 package no_armor;
 
+import no_armor.policy.PolicySnapshot;
 import org.bukkit.Material;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,41 +19,40 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class NoArmorPluginTest {
 
-    @Mock
-    private FileConfiguration mockConfig;
-
     @Mock
     private NoArmorPlugin mockPlugin;
 
     @BeforeEach
     void setUp() {
-        when(mockPlugin.getConfig()).thenReturn(mockConfig);
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.diamond_sword", true);
+        config.set("allowed-items.netherite_helmet", false);
+
+        PolicySnapshot policy = PolicySnapshot.compile(config.getConfigurationSection("allowed-items"), null);
+        when(mockPlugin.getPolicy()).thenReturn(policy);
     }
 
     @Test
     @DisplayName("isItemAllowed returns true for allowed items")
     void testIsItemAllowed_Allowed() {
-        when(mockConfig.getBoolean("allowed-items.diamond_sword", true)).thenReturn(true);
-        when(mockPlugin.isItemAllowed("diamond_sword")).thenCallRealMethod();
+        when(mockPlugin.isItemAllowed(Material.DIAMOND_SWORD)).thenCallRealMethod();
 
-        assertTrue(mockPlugin.isItemAllowed("diamond_sword"));
+        assertTrue(mockPlugin.isItemAllowed(Material.DIAMOND_SWORD));
     }
 
     @Test
     @DisplayName("isItemAllowed returns false for blocked items")
     void testIsItemAllowed_Blocked() {
-        when(mockConfig.getBoolean("allowed-items.netherite_helmet", true)).thenReturn(false);
-        when(mockPlugin.isItemAllowed("netherite_helmet")).thenCallRealMethod();
+        when(mockPlugin.isItemAllowed(Material.NETHERITE_HELMET)).thenCallRealMethod();
 
-        assertFalse(mockPlugin.isItemAllowed("netherite_helmet"));
+        assertFalse(mockPlugin.isItemAllowed(Material.NETHERITE_HELMET));
     }
 
     @Test
     @DisplayName("isItemAllowed defaults to true for missing items")
     void testIsItemAllowed_MissingDefaultsTrue() {
-        when(mockConfig.getBoolean("allowed-items.unknown_item", true)).thenReturn(true);
-        when(mockPlugin.isItemAllowed("unknown_item")).thenCallRealMethod();
+        when(mockPlugin.isItemAllowed(Material.APPLE)).thenCallRealMethod();
 
-        assertTrue(mockPlugin.isItemAllowed("unknown_item"));
+        assertTrue(mockPlugin.isItemAllowed(Material.APPLE));
     }
 }
@@ -0,0 +1,46 @@
+package no_armor;
+
+import no_armor.policy.PolicyDiff;
+import no_armor.policy.PolicySnapshot;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the reload diff summary.
+ */
+class PolicyDiffTest {
+
+    private PolicySnapshot compile(MemoryConfiguration config, long slots) {
+        return PolicySnapshot.compile(config.getConfigurationSection("allowed-items"), null)
+                .withRestrictedSlots(slots);
+    }
+
+    @Test
+    @DisplayName("Identical snapshots produce no diff")
+    void noChanges() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.bow", false);
+        assertTrue(PolicyDiff.describe(compile(config, 1L), compile(config, 1L)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Material and slot changes are listed")
+    void changesListed() {
+        MemoryConfiguration before = new MemoryConfiguration();
+        before.set("allowed-items.bow", false);
+        MemoryConfiguration after = new MemoryConfiguration();
+        after.set("allowed-items.elytra", false);
+
+        List<String> lines = PolicyDiff.describe(compile(before, 0b011L), compile(after, 0b110L));
+        assertEquals(List.of(
+                "Now blocked: elytra",
+                "Now allowed: bow",
+                "Slots now restricted: 2",
+                "Slots now free: 0"), lines);
+    }
+}
@@ -0,0 +1,111 @@
+package no_armor;
+
+import no_armor.policy.PolicySet;
+import no_armor.policy.SlotLayout;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for compiling restriction profiles.
+ */
+class PolicySetTest {
+
+    @Test
+    @DisplayName("Profiles inherit global entries and override listed ones")
+    void profilesInheritDefaults() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.netherite_helmet", false);
+        config.set("allowed-items.elytra", false);
+        config.set("profiles.vip.allowed-items.netherite_helmet", true);
+
+        PolicySet policySet = PolicySet.compile(config, null);
+        PolicySet.Profile vip = policySet.getProfiles().get(0);
+
+        assertFalse(policySet.getDefaults().isAllowed(Material.NETHERITE_HELMET));
+        assertTrue(vip.policy().isAllowed(Material.NETHERITE_HELMET));
+        assertFalse(vip.policy().isAllowed(Material.ELYTRA));
+    }
+
+    @Test
+    @DisplayName("Profile permissions are derived from the profile name")
+    void profilePermissions() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("profiles.VIP.allowed-items.bow", false);
+        config.set("profiles.newbie.allowed-items.bow", false);
+
+        List<PolicySet.Profile> profiles = PolicySet.compile(config, null).getProfiles();
+        assertEquals(2, profiles.size());
+        assertEquals("noarmor.profile.vip", profiles.get(0).permission());
+        assertEquals("noarmor.profile.newbie", profiles.get(1).permission());
+    }
+
+    @Test
+    @DisplayName("Missing profiles section compiles to no profiles")
+    void noProfiles() {
+        assertTrue(PolicySet.compile(new MemoryConfiguration(), null).getProfiles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("World overrides apply on top of profiles and replace slots")
+    void worldOverrides() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("restricted-slots.slots", List.of("hotbar"));
+        config.set("profiles.vip.allowed-items.ender_pearl", true);
+        config.set("worlds.Arena.allowed-items.ender_pearl", false);
+        config.set("worlds.Arena.restricted-slots.slots", List.of("offhand"));
+
+        PolicySet policySet = PolicySet.compile(config, null);
+        PolicySet.Profile vip = policySet.getProfiles().get(0);
+
+        World arena = mock(World.class);
+        when(arena.getName()).thenReturn("arena");
+        World survival = mock(World.class);
+        when(survival.getName()).thenReturn("world");
+
+        assertFalse(policySet.resolve(vip, arena).isAllowed(Material.ENDER_PEARL));
+        assertTrue(policySet.resolve(vip, survival).isAllowed(Material.ENDER_PEARL));
+        assertTrue(policySet.resolve(null, arena).isSlotRestricted(40));
+        assertFalse(policySet.resolve(null, arena).isSlotRestricted(0));
+        assertTrue(policySet.resolve(null, survival).isSlotRestricted(0));
+    }
+
+    @Test
+    @DisplayName("Profiles can replace the restricted slot layout")
+    void profileSlotLayouts() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("restricted-slots.slots", List.of("main"));
+        config.set("profiles.recruit.restricted-slots.slots", List.of("main", "offhand"));
+        config.set("profiles.veteran.restricted-slots.enabled", false);
+        config.set("profiles.vip.allowed-items.bow", false);
+
+        List<PolicySet.Profile> profiles = PolicySet.compile(config, null).getProfiles();
+        PolicySet.Profile recruit = profiles.get(0);
+        PolicySet.Profile veteran = profiles.get(1);
+        PolicySet.Profile vip = profiles.get(2);
+
+        assertTrue(recruit.policy().isSlotRestricted(40));
+        assertTrue(recruit.policy().isSlotRestricted(9));
+        assertEquals(0L, veteran.policy().getRestrictedSlots());
+        assertTrue(vip.policy().isSlotRestricted(9));
+        assertFalse(vip.policy().isSlotRestricted(40));
+    }
+
+    @Test
+    @DisplayName("Slots outside 0-40 are skipped with a warning")
+    void outOfRangeSlotsWarn() {
+        Logger logger = mock(Logger.class);
+
+        long mask = SlotLayout.parse(List.of("38-45", "50", "hotbar"), logger);
+        assertEquals((0x7L << 38) | 0x1FFL, mask);
+        verify(logger, times(2)).warning(anyString());
+    }
+}
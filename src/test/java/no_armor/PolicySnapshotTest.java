@@ -0,0 +1,155 @@
+package no_armor;
+
+import no_armor.policy.ItemClassifier;
+import no_armor.policy.PolicySnapshot;
+import no_armor.policy.TestClassifiers;
+import org.bukkit.Material;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compiling the allowed-items section into a policy snapshot.
+ */
+class PolicySnapshotTest {
+
+    // Armor mask bits, indexed by inventory slot - 36
+    private static final int FEET_BIT = 1;
+    private static final int CHEST_BIT = 1 << 2;
+    private static final int HEAD_BIT = 1 << 3;
+
+    private static final ItemClassifier CLASSIFIER = TestClassifiers.of(Map.of(
+            Material.IRON_HELMET, ItemClassifier.HEAD | ItemClassifier.ARMOR_PIECE,
+            Material.DIAMOND_HELMET, ItemClassifier.HEAD | ItemClassifier.ARMOR_PIECE,
+            Material.CARVED_PUMPKIN, ItemClassifier.HEAD,
+            Material.DIAMOND_CHESTPLATE, ItemClassifier.CHEST | ItemClassifier.ARMOR_PIECE,
+            Material.ELYTRA, ItemClassifier.CHEST | ItemClassifier.ARMOR_PIECE,
+            Material.DIAMOND_LEGGINGS, ItemClassifier.LEGS | ItemClassifier.ARMOR_PIECE,
+            Material.DIAMOND_BOOTS, ItemClassifier.FEET | ItemClassifier.ARMOR_PIECE));
+
+    private PolicySnapshot compile(MemoryConfiguration config) {
+        return PolicySnapshot.compile(config.getConfigurationSection("allowed-items"), null);
+    }
+
+    @Test
+    @DisplayName("Blocked entries are compiled to denied bits")
+    void blockedEntriesDenied() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.diamond_helmet", false);
+        config.set("allowed-items.bow", false);
+
+        PolicySnapshot policy = compile(config);
+        assertFalse(policy.isAllowed(Material.DIAMOND_HELMET));
+        assertFalse(policy.isAllowed(Material.BOW));
+        assertTrue(policy.isAllowed(Material.DIAMOND_CHESTPLATE));
+    }
+
+    @Test
+    @DisplayName("Missing section allows everything")
+    void missingSectionAllowsAll() {
+        PolicySnapshot policy = compile(new MemoryConfiguration());
+        for (Material material : Material.values()) {
+            assertTrue(policy.isAllowed(material), material + " should be allowed");
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown keys are ignored")
+    void unknownKeysIgnored() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.not_a_real_item", false);
+        config.set("allowed-items.stone", false);
+
+        PolicySnapshot policy = compile(config);
+        assertFalse(policy.isAllowed(Material.STONE));
+        assertTrue(policy.isAllowed(Material.DIRT));
+    }
+
+    @Test
+    @DisplayName("Null material is treated as allowed")
+    void nullMaterialAllowed() {
+        assertTrue(compile(new MemoryConfiguration()).isAllowed((Material) null));
+    }
+
+    @Test
+    @DisplayName("Wildcard keys are expanded and exact keys win")
+    void wildcardsExpanded() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.*_helmet", false);
+        config.set("allowed-items.netherite_*", false);
+        config.set("allowed-items.iron_helmet", true);
+
+        PolicySnapshot policy = compile(config);
+        assertFalse(policy.isAllowed(Material.DIAMOND_HELMET));
+        assertFalse(policy.isAllowed(Material.TURTLE_HELMET));
+        assertFalse(policy.isAllowed(Material.NETHERITE_INGOT));
+        assertTrue(policy.isAllowed(Material.IRON_HELMET));
+        assertTrue(policy.isAllowed(Material.DIAMOND_CHESTPLATE));
+    }
+
+    @Test
+    @DisplayName("Default-deny mode blocks unlisted items but keeps air allowed")
+    void defaultDenyAllowList() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.bread", true);
+        config.set("allowed-items.iron_pickaxe", true);
+
+        PolicySnapshot policy = PolicySnapshot.compile(config.getConfigurationSection("allowed-items"), false, null);
+        assertTrue(policy.isAllowed(Material.BREAD));
+        assertTrue(policy.isAllowed(Material.IRON_PICKAXE));
+        assertTrue(policy.isAllowed(Material.AIR));
+        assertFalse(policy.isAllowed(Material.DIAMOND_SWORD));
+        assertFalse(policy.isAllowed(Material.STONE));
+    }
+
+    @Test
+    @DisplayName("Armor slots are only restricted when every armor piece for them is blocked")
+    void restrictedArmorSlots() {
+        assertEquals(0, compile(new MemoryConfiguration()).getRestrictedArmorSlots(CLASSIFIER));
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.iron_helmet", false);
+        assertEquals(0, compile(config).getRestrictedArmorSlots(CLASSIFIER));
+
+        config.set("allowed-items.diamond_helmet", false);
+        config.set("allowed-items.diamond_boots", false);
+        assertEquals(HEAD_BIT | FEET_BIT, compile(config).getRestrictedArmorSlots(CLASSIFIER));
+    }
+
+    @Test
+    @DisplayName("Head-wearables that are not armor don't keep the helmet slot open")
+    void headWearablesIgnored() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.*_helmet", false);
+
+        PolicySnapshot policy = compile(config);
+        assertTrue(policy.isAllowed(Material.CARVED_PUMPKIN));
+        assertEquals(HEAD_BIT, policy.getRestrictedArmorSlots(CLASSIFIER));
+    }
+
+    @Test
+    @DisplayName("An allowed elytra keeps the chest slot open")
+    void elytraKeepsChestOpen() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.diamond_chestplate", false);
+        assertEquals(0, compile(config).getRestrictedArmorSlots(CLASSIFIER));
+
+        config.set("allowed-items.elytra", false);
+        assertEquals(CHEST_BIT, compile(config).getRestrictedArmorSlots(CLASSIFIER));
+    }
+
+    @Test
+    @DisplayName("Copies with other slots keep the computed armor mask")
+    void armorMaskSharedByCopies() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("allowed-items.*_boots", false);
+
+        PolicySnapshot policy = compile(config);
+        assertEquals(FEET_BIT, policy.getRestrictedArmorSlots(CLASSIFIER));
+        assertEquals(FEET_BIT, policy.withRestrictedSlots(1L).getRestrictedArmorSlots(CLASSIFIER));
+    }
+}
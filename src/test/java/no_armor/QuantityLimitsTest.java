@@ -0,0 +1,62 @@
+package no_armor;
+
+import no_armor.policy.QuantityLimits;
+import org.bukkit.Material;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for compiling quantity limits and counting inventories.
+ */
+class QuantityLimitsTest {
+
+    private static ItemStack stack(Material material, int amount) {
+        ItemStack item = mock(ItemStack.class);
+        when(item.getType()).thenReturn(material);
+        when(item.getAmount()).thenReturn(amount);
+        return item;
+    }
+
+    @Test
+    @DisplayName("Limited materials get dense counter indexes")
+    void denseIndexes() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("quantity-limits.ender_pearl", 16);
+        config.set("quantity-limits.totem_of_undying", 2);
+        config.set("quantity-limits.not_an_item", 5);
+        config.set("quantity-limits.bow", "many");
+
+        QuantityLimits limits = QuantityLimits.compile(config.getConfigurationSection("quantity-limits"), null);
+        assertEquals(2, limits.size());
+        assertEquals(0, limits.indexOf(Material.ENDER_PEARL));
+        assertEquals(1, limits.indexOf(Material.TOTEM_OF_UNDYING));
+        assertEquals(-1, limits.indexOf(Material.BOW));
+        assertEquals(16, limits.getLimit(0));
+        assertEquals(Material.TOTEM_OF_UNDYING, limits.getMaterial(1));
+    }
+
+    @Test
+    @DisplayName("Counting sums stacks of limited materials only")
+    void countContents() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("quantity-limits.ender_pearl", 16);
+
+        QuantityLimits limits = QuantityLimits.compile(config.getConfigurationSection("quantity-limits"), null);
+        ItemStack[] contents = {
+                stack(Material.ENDER_PEARL, 10), null, stack(Material.STONE, 64), stack(Material.ENDER_PEARL, 8)
+        };
+        assertArrayEquals(new int[] { 18 }, limits.count(contents));
+    }
+
+    @Test
+    @DisplayName("Missing section compiles to no limits")
+    void missingSection() {
+        assertTrue(QuantityLimits.compile(null, null).isEmpty());
+        assertEquals(-1, QuantityLimits.NONE.indexOf(Material.ENDER_PEARL));
+    }
+}
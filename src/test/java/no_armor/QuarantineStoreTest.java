@@ -0,0 +1,164 @@
+package no_armor;
+
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for merging, flushing and unloading quarantined items. Items are
+ * stored as comma-separated material names since item serialization needs
+ * a running server; async tasks are queued and run by the test.
+ */
+class QuarantineStoreTest {
+
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    @TempDir
+    Path folder;
+
+    private final Queue<Runnable> async = new ArrayDeque<>();
+    private Server server;
+    private QuarantineStore store;
+
+    @BeforeEach
+    void setUp() {
+        PluginScheduler scheduler = mock(PluginScheduler.class);
+        doAnswer(invocation -> async.add(invocation.getArgument(0))).when(scheduler).runAsync(any());
+        server = mock(Server.class);
+        when(server.getPlayer(PLAYER)).thenReturn(mock(Player.class));
+
+        NoArmorPlugin plugin = mock(NoArmorPlugin.class);
+        when(plugin.getPluginScheduler()).thenReturn(scheduler);
+        when(plugin.getServer()).thenReturn(server);
+        store = new QuarantineStore(plugin, folder, QuarantineStoreTest::serialize, QuarantineStoreTest::deserialize);
+    }
+
+    private static byte[] serialize(List<ItemStack> items) {
+        return items.stream().map(item -> item.getType().name())
+                .collect(Collectors.joining(",")).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ItemStack[] deserialize(byte[] bytes) {
+        return Arrays.stream(new String(bytes, StandardCharsets.UTF_8).split(","))
+                .map(name -> stack(Material.valueOf(name))).toArray(ItemStack[]::new);
+    }
+
+    private static ItemStack stack(Material material) {
+        ItemStack item = mock(ItemStack.class);
+        when(item.getType()).thenReturn(material);
+        return item;
+    }
+
+    private Path file() {
+        return folder.resolve(PLAYER + ".bin");
+    }
+
+    private void store(Material... materials) throws IOException {
+        Files.write(file(), serialize(Arrays.stream(materials).map(QuarantineStoreTest::stack).toList()));
+    }
+
+    private String stored() throws IOException {
+        return Files.readString(file());
+    }
+
+    private void runAsync() {
+        while (!async.isEmpty()) {
+            async.poll().run();
+        }
+    }
+
+    @Test
+    @DisplayName("Items quarantined while loading are kept after the stored ones")
+    void addDuringLoad() throws IOException {
+        store(Material.STONE, Material.DIRT);
+        store.load(PLAYER);
+        store.add(PLAYER, List.of(stack(Material.APPLE)));
+
+        // The file has not been read yet, so it must not be replaced
+        store.shutdown();
+        assertEquals("STONE,DIRT", stored());
+
+        runAsync();
+        assertEquals(3, store.count(PLAYER));
+        store.shutdown();
+        assertEquals("STONE,DIRT,APPLE", stored());
+    }
+
+    @Test
+    @DisplayName("Items still in memory are newer than the file and are not reloaded")
+    void loadKeepsMemory() throws IOException {
+        store(Material.STONE);
+        store.add(PLAYER, List.of(stack(Material.APPLE)));
+        store.load(PLAYER);
+
+        assertTrue(async.isEmpty());
+        assertEquals(1, store.count(PLAYER));
+    }
+
+    @Test
+    @DisplayName("Unloading keeps unwritten items until the flush writes them")
+    void unloadWaitsForFlush() throws IOException {
+        when(server.getPlayer(PLAYER)).thenReturn(null);
+        store.add(PLAYER, List.of(stack(Material.APPLE)));
+
+        store.unload(PLAYER);
+        assertEquals(1, store.count(PLAYER));
+
+        store.shutdown();
+        assertEquals("APPLE", stored());
+        assertEquals(0, store.count(PLAYER));
+    }
+
+    @Test
+    @DisplayName("Leaving before the file is read unloads once it is merged")
+    void quitDuringLoad() throws IOException {
+        store(Material.STONE);
+        store.load(PLAYER);
+        when(server.getPlayer(PLAYER)).thenReturn(null);
+        store.unload(PLAYER);
+
+        runAsync();
+        assertEquals(0, store.count(PLAYER));
+        assertEquals("STONE", stored());
+    }
+
+    @Test
+    @DisplayName("Claiming everything deletes the file on the next flush")
+    void claimAllDeletesFile() throws IOException {
+        store(Material.STONE);
+        store.load(PLAYER);
+        runAsync();
+
+        Player player = mock(Player.class);
+        PlayerInventory inventory = mock(PlayerInventory.class);
+        when(player.getUniqueId()).thenReturn(PLAYER);
+        when(player.getInventory()).thenReturn(inventory);
+        when(inventory.addItem(any(ItemStack[].class))).thenReturn(new HashMap<>());
+
+        assertEquals(1, store.claim(player));
+        store.shutdown();
+        assertFalse(Files.exists(file()));
+    }
+}
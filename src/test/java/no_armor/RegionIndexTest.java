@@ -0,0 +1,67 @@
+package no_armor;
+
+import no_armor.policy.ItemOverrides;
+import no_armor.policy.Region;
+import no_armor.policy.RegionIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the chunk-keyed region index.
+ */
+class RegionIndexTest {
+
+    private Region region(String name, int x1, int z1, int x2, int z2) {
+        return new Region(name, "world", x1, 0, z1, x2, 255, z2, ItemOverrides.NONE);
+    }
+
+    @Test
+    @DisplayName("Region is indexed in every chunk it overlaps")
+    void regionIndexedInOverlappingChunks() {
+        Region spawn = region("spawn", -20, -20, 20, 20);
+        RegionIndex index = RegionIndex.build(List.of(spawn));
+
+        assertArrayEquals(new Region[] { spawn }, index.get(-2, -2));
+        assertArrayEquals(new Region[] { spawn }, index.get(1, 1));
+        assertEquals(0, index.get(2, 0).length);
+        assertEquals(0, index.get(100, 100).length);
+    }
+
+    @Test
+    @DisplayName("Overlapping regions share a chunk entry")
+    void overlappingRegionsShareChunk() {
+        Region a = region("a", 0, 0, 15, 15);
+        Region b = region("b", 8, 8, 40, 40);
+        RegionIndex index = RegionIndex.build(List.of(a, b));
+
+        assertArrayEquals(new Region[] { a, b }, index.get(0, 0));
+        assertArrayEquals(new Region[] { b }, index.get(2, 2));
+    }
+
+    @Test
+    @DisplayName("Index survives growth past its initial capacity")
+    void indexGrows() {
+        Region large = region("large", -512, -512, 511, 511);
+        RegionIndex index = RegionIndex.build(List.of(large));
+
+        for (int cx = -32; cx < 32; cx++) {
+            for (int cz = -32; cz < 32; cz++) {
+                assertEquals(1, index.get(cx, cz).length);
+            }
+        }
+        assertEquals(0, index.get(32, 0).length);
+    }
+
+    @Test
+    @DisplayName("Region bounds are inclusive and order-independent")
+    void containsIsInclusive() {
+        Region r = new Region("r", "world", 10, 64, 10, -10, 0, -10, ItemOverrides.NONE);
+        assertTrue(r.contains(-10, 0, -10));
+        assertTrue(r.contains(10, 64, 10));
+        assertFalse(r.contains(11, 10, 0));
+    }
+}
@@ -0,0 +1,82 @@
+package no_armor;
+
+import no_armor.policy.PolicySnapshot;
+import no_armor.policy.ScheduleTimeline;
+import org.bukkit.Material;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compiling schedule windows into a weekly timeline.
+ */
+class ScheduleTimelineTest {
+
+    // 2026-10-16 is a Friday
+    private static ZonedDateTime friday(int hour, int minute) {
+        return ZonedDateTime.of(2026, 10, 16, hour, minute, 0, 0, ZoneOffset.UTC);
+    }
+
+    private ScheduleTimeline compile(MemoryConfiguration config) {
+        return ScheduleTimeline.compile(config.getConfigurationSection("schedules"), "UTC", null);
+    }
+
+    private boolean allows(ScheduleTimeline timeline, ZonedDateTime time, Material material) {
+        PolicySnapshot base = PolicySnapshot.compile(null, null);
+        return base.with(timeline.getOverrides(timeline.segmentAt(time))).isAllowed(material);
+    }
+
+    @Test
+    @DisplayName("Windows apply only between their start and end")
+    void windowBounds() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("schedules.event.days", List.of("friday"));
+        config.set("schedules.event.start", "20:00");
+        config.set("schedules.event.end", "22:00");
+        config.set("schedules.event.allowed-items.netherite_helmet", false);
+
+        ScheduleTimeline timeline = compile(config);
+        assertTrue(allows(timeline, friday(19, 59), Material.NETHERITE_HELMET));
+        assertFalse(allows(timeline, friday(20, 0), Material.NETHERITE_HELMET));
+        assertFalse(allows(timeline, friday(21, 30), Material.NETHERITE_HELMET));
+        assertTrue(allows(timeline, friday(22, 0), Material.NETHERITE_HELMET));
+        assertTrue(allows(timeline, friday(20, 0).plusDays(1), Material.NETHERITE_HELMET));
+
+        assertEquals(List.of("event"), timeline.getActiveNames(timeline.segmentAt(friday(21, 0))));
+        assertEquals(friday(22, 0), timeline.getSegmentEnd(timeline.segmentAt(friday(21, 0)), friday(21, 0)));
+        assertEquals(friday(20, 0), timeline.getSegmentEnd(timeline.segmentAt(friday(8, 0)), friday(8, 0)));
+    }
+
+    @Test
+    @DisplayName("Windows ending before their start run past midnight")
+    void overnightWindow() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("schedules.night.days", List.of("sunday"));
+        config.set("schedules.night.start", "23:00");
+        config.set("schedules.night.end", "01:00");
+        config.set("schedules.night.allowed-items.elytra", false);
+
+        ScheduleTimeline timeline = compile(config);
+        ZonedDateTime sunday = friday(23, 30).plusDays(2);
+        assertFalse(allows(timeline, sunday, Material.ELYTRA));
+        assertFalse(allows(timeline, sunday.plusHours(1), Material.ELYTRA));
+        assertTrue(allows(timeline, sunday.plusHours(2), Material.ELYTRA));
+    }
+
+    @Test
+    @DisplayName("Invalid windows are skipped")
+    void invalidWindowsSkipped() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("schedules.broken.start", "25:00");
+        config.set("schedules.broken.end", "26:00");
+
+        assertTrue(compile(config).isEmpty());
+        assertTrue(ScheduleTimeline.compile(null, null, null).isEmpty());
+    }
+}
@@ -0,0 +1,134 @@
+package no_armor;
+
+import no_armor.listeners.ShiftClickPredictor;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for predicting and redirecting shift-click destinations.
+ */
+class ShiftClickPredictorTest {
+
+    // Mocked stack with a mutable amount; stacks of the same material are similar
+    private static ItemStack stack(Material material, int amount) {
+        ItemStack item = mock(ItemStack.class);
+        int[] count = { amount };
+        when(item.getType()).thenReturn(material);
+        when(item.getAmount()).thenAnswer(invocation -> count[0]);
+        doAnswer(invocation -> {
+            count[0] = invocation.getArgument(0);
+            return null;
+        }).when(item).setAmount(anyInt());
+        when(item.getMaxStackSize()).thenReturn(material == Material.ENDER_PEARL ? 16 : 64);
+        when(item.isSimilar(any())).thenAnswer(invocation -> {
+            ItemStack other = invocation.getArgument(0);
+            return other != null && other.getType() == material;
+        });
+        when(item.clone()).thenAnswer(invocation -> stack(material, count[0]));
+        return item;
+    }
+
+    private static long slots(int... slots) {
+        long mask = 0;
+        for (int slot : slots) {
+            mask |= 1L << slot;
+        }
+        return mask;
+    }
+
+    @Test
+    @DisplayName("Orders follow the vanilla shift-click destinations")
+    void vanillaOrders() {
+        assertEquals(36, ShiftClickPredictor.CONTAINER_TO_PLAYER.length);
+        assertEquals(8, ShiftClickPredictor.CONTAINER_TO_PLAYER[0]);
+        assertEquals(0, ShiftClickPredictor.CONTAINER_TO_PLAYER[8]);
+        assertEquals(35, ShiftClickPredictor.CONTAINER_TO_PLAYER[9]);
+        assertEquals(9, ShiftClickPredictor.CONTAINER_TO_PLAYER[35]);
+
+        assertEquals(9, ShiftClickPredictor.MAIN_FIRST[0]);
+        assertEquals(35, ShiftClickPredictor.MAIN_FIRST[26]);
+        assertEquals(0, ShiftClickPredictor.MAIN_FIRST[27]);
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 }, ShiftClickPredictor.MAIN_TO_HOTBAR);
+    }
+
+    @Test
+    @DisplayName("The first empty slot decides when nothing can be merged")
+    void firstEmptySlot() {
+        ItemStack[] contents = new ItemStack[41];
+        ItemStack item = stack(Material.STONE, 10);
+
+        assertTrue(ShiftClickPredictor.wouldLandRestricted(contents, item,
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(8)));
+        assertFalse(ShiftClickPredictor.wouldLandRestricted(contents, item,
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(7)));
+        assertFalse(ShiftClickPredictor.wouldLandRestricted(contents, item,
+                ShiftClickPredictor.MAIN_FIRST, slots(8)));
+    }
+
+    @Test
+    @DisplayName("Merging into allowed stacks never reaches a restricted empty slot")
+    void mergeBeforeEmpty() {
+        ItemStack[] contents = new ItemStack[41];
+        contents[20] = stack(Material.STONE, 50);
+
+        assertFalse(ShiftClickPredictor.wouldLandRestricted(contents, stack(Material.STONE, 14),
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(8)));
+        // Two items don't fit the stack, the rest goes to slot 8
+        assertTrue(ShiftClickPredictor.wouldLandRestricted(contents, stack(Material.STONE, 16),
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(8)));
+    }
+
+    @Test
+    @DisplayName("Partial stacks in restricted slots are merge targets too")
+    void restrictedMergeTarget() {
+        ItemStack[] contents = new ItemStack[41];
+        contents[20] = stack(Material.STONE, 10);
+        contents[5] = stack(Material.DIRT, 1);
+
+        assertTrue(ShiftClickPredictor.wouldLandRestricted(contents, stack(Material.STONE, 1),
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(20)));
+        assertFalse(ShiftClickPredictor.wouldLandRestricted(contents, stack(Material.STONE, 1),
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(5)));
+    }
+
+    @Test
+    @DisplayName("Redirected moves skip restricted slots")
+    void moveSkipsRestricted() {
+        ItemStack[] contents = new ItemStack[41];
+        contents[20] = stack(Material.STONE, 10);
+
+        int left = ShiftClickPredictor.moveAvoiding(contents, stack(Material.STONE, 30),
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(20, 8));
+        assertEquals(0, left);
+        assertNull(contents[8]);
+        assertEquals(10, contents[20].getAmount());
+        assertEquals(Material.STONE, contents[7].getType());
+        assertEquals(30, contents[7].getAmount());
+    }
+
+    @Test
+    @DisplayName("Redirected moves merge first, split by stack size and return what does not fit")
+    void moveMergesAndSplits() {
+        ItemStack[] contents = new ItemStack[41];
+        for (int slot = 0; slot < 36; slot++) {
+            contents[slot] = stack(Material.DIRT, 64);
+        }
+        contents[3] = stack(Material.ENDER_PEARL, 12);
+        contents[4] = null;
+        contents[5] = null;
+
+        int left = ShiftClickPredictor.moveAvoiding(contents, stack(Material.ENDER_PEARL, 28),
+                ShiftClickPredictor.CONTAINER_TO_PLAYER, slots(5));
+        assertEquals(16, contents[3].getAmount());
+        assertEquals(16, contents[4].getAmount());
+        assertNull(contents[5]);
+        assertEquals(8, left);
+    }
+}
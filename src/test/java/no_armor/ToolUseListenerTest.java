@@ -0,0 +1,103 @@
+package no_armor;
+
+import com.destroystokyo.paper.event.player.PlayerLaunchProjectileEvent;
+import no_armor.listeners.ToolUseListener;
+import no_armor.player.PlayerState;
+import no_armor.player.PlayerStateManager;
+import no_armor.policy.ItemClassifier;
+import no_armor.policy.ItemCooldowns;
+import no_armor.policy.PolicySet;
+import no_armor.policy.PolicySnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.BlockFace;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.EnderPearl;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for item cooldowns on the interact and launch paths.
+ */
+class ToolUseListenerTest {
+
+    private Player player;
+    private PlayerState state;
+    private ItemStack pearl;
+    private int pearlIndex;
+    private ToolUseListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("cooldowns.ender_pearl", 10);
+        ItemCooldowns cooldowns = ItemCooldowns.compile(config.getConfigurationSection("cooldowns"), null);
+        pearlIndex = cooldowns.indexOf(Material.ENDER_PEARL);
+
+        PolicySet policySet = mock(PolicySet.class);
+        when(policySet.getCooldowns()).thenReturn(cooldowns);
+
+        player = mock(Player.class);
+        state = mock(PlayerState.class);
+        when(state.getPolicy()).thenReturn(PolicySnapshot.compile(null, null));
+        PlayerStateManager states = mock(PlayerStateManager.class);
+        when(states.get(player)).thenReturn(state);
+
+        NoArmorPlugin plugin = mock(NoArmorPlugin.class);
+        when(plugin.getPlayerStates()).thenReturn(states);
+        when(plugin.getPolicySet()).thenReturn(policySet);
+        when(plugin.getItemClassifier()).thenReturn(mock(ItemClassifier.class));
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+
+        pearl = mock(ItemStack.class);
+        when(pearl.getType()).thenReturn(Material.ENDER_PEARL);
+        listener = new ToolUseListener(plugin);
+    }
+
+    private PlayerInteractEvent airClick() {
+        // Without a clicked block the event starts out cancelled
+        return new PlayerInteractEvent(player, Action.RIGHT_CLICK_AIR, pearl, null, BlockFace.SELF);
+    }
+
+    @Test
+    @DisplayName("Air clicks are checked even though they report as cancelled")
+    void airClickOnCooldown() {
+        when(state.getCooldownRemaining(eq(pearlIndex), anyLong())).thenReturn(4_000L);
+
+        PlayerInteractEvent event = airClick();
+        assertTrue(event.isCancelled());
+        listener.onPlayerInteract(event);
+
+        assertEquals(Event.Result.DENY, event.useItemInHand());
+        verify(player).sendMessage(contains("4s"));
+    }
+
+    @Test
+    @DisplayName("Air clicks off cooldown are allowed and don't start the cooldown")
+    void airClickOffCooldown() {
+        PlayerInteractEvent event = airClick();
+        listener.onPlayerInteract(event);
+
+        assertNotEquals(Event.Result.DENY, event.useItemInHand());
+        verify(state, never()).startCooldown(anyInt(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Launching the projectile starts the cooldown")
+    void launchStartsCooldown() {
+        listener.onLaunchProjectile(new PlayerLaunchProjectileEvent(player, pearl, mock(EnderPearl.class)));
+
+        verify(state).startCooldown(eq(pearlIndex), anyLong());
+        verify(player).setCooldown(Material.ENDER_PEARL, 200);
+    }
+}
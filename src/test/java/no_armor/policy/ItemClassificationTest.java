@@ -0,0 +1,120 @@
+package no_armor.policy;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.EquipmentSlot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the item classifier. Registry data (equipment slot, edibility,
+ * tag membership) is passed in directly since tests run without a server.
+ */
+class ItemClassificationTest {
+
+    private static int classify(Material material, EquipmentSlot slot) {
+        return ItemClassifier.classify(material, slot, false, false, false, false);
+    }
+
+    private static int classifyArmor(Material material, EquipmentSlot slot) {
+        return ItemClassifier.classify(material, slot, false, false, false, true);
+    }
+
+    private static ItemClassifier classifier(Material material, int categories) {
+        int[] table = new int[Material.values().length];
+        table[material.ordinal()] = categories;
+        return new ItemClassifier(table);
+    }
+
+    @Test
+    @DisplayName("Equipment slots map to the matching armor category")
+    void armorSlotMapping() {
+        assertEquals(ItemClassifier.HEAD | ItemClassifier.ARMOR_PIECE,
+                classifyArmor(Material.DIAMOND_HELMET, EquipmentSlot.HEAD));
+        assertEquals(ItemClassifier.CHEST | ItemClassifier.ARMOR_PIECE,
+                classifyArmor(Material.DIAMOND_CHESTPLATE, EquipmentSlot.CHEST));
+        assertEquals(ItemClassifier.LEGS | ItemClassifier.ARMOR_PIECE,
+                classifyArmor(Material.DIAMOND_LEGGINGS, EquipmentSlot.LEGS));
+        assertEquals(ItemClassifier.FEET | ItemClassifier.ARMOR_PIECE,
+                classifyArmor(Material.DIAMOND_BOOTS, EquipmentSlot.FEET));
+        assertEquals(ItemClassifier.BODY, classifyArmor(Material.DIAMOND_HORSE_ARMOR, EquipmentSlot.BODY));
+    }
+
+    @Test
+    @DisplayName("Head-wearables without an armor tag are not armor pieces")
+    void headWearablesNotArmorPieces() {
+        assertEquals(ItemClassifier.HEAD, classify(Material.CARVED_PUMPKIN, EquipmentSlot.HEAD));
+        assertEquals(ItemClassifier.HEAD, classify(Material.ZOMBIE_HEAD, EquipmentSlot.HEAD));
+        assertEquals(0, classifyArmor(Material.STONE, EquipmentSlot.HAND));
+    }
+
+    @Test
+    @DisplayName("Armor families only hold armor pieces")
+    void armorFamilies() {
+        int[] table = new int[Material.values().length];
+        table[Material.IRON_HELMET.ordinal()] = ItemClassifier.HEAD | ItemClassifier.ARMOR_PIECE;
+        table[Material.CARVED_PUMPKIN.ordinal()] = ItemClassifier.HEAD;
+        ItemClassifier classifier = new ItemClassifier(table);
+
+        long[] head = classifier.armorFamily(3);
+        assertNotEquals(0, head[Material.IRON_HELMET.ordinal() >>> 6] & (1L << Material.IRON_HELMET.ordinal()));
+        assertEquals(0, head[Material.CARVED_PUMPKIN.ordinal() >>> 6] & (1L << Material.CARVED_PUMPKIN.ordinal()));
+        assertTrue(classifier.isArmor(Material.CARVED_PUMPKIN));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Player armor slots count as armor, body armor does not")
+    @ValueSource(ints = { ItemClassifier.HEAD, ItemClassifier.CHEST, ItemClassifier.LEGS, ItemClassifier.FEET })
+    void playerArmorIsArmor(int category) {
+        assertTrue(classifier(Material.IRON_HELMET, category).isArmor(Material.IRON_HELMET));
+        assertFalse(classifier(Material.DIAMOND_HORSE_ARMOR, ItemClassifier.BODY).isArmor(Material.DIAMOND_HORSE_ARMOR));
+    }
+
+    @Test
+    @DisplayName("Elytra is chest equipment and shield is no armor or weapon")
+    void elytraAndShield() {
+        assertEquals(ItemClassifier.CHEST | ItemClassifier.ARMOR_PIECE,
+                classify(Material.ELYTRA, EquipmentSlot.CHEST));
+        assertEquals(0, classify(Material.SHIELD, EquipmentSlot.OFF_HAND));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Tools without a weapon tag are not weapons")
+    @ValueSource(strings = { "IRON_PICKAXE", "IRON_SHOVEL", "IRON_HOE", "SHEARS", "FISHING_ROD", "FLINT_AND_STEEL" })
+    void toolsAreNotWeapons(String materialName) {
+        assertEquals(0, classify(Material.valueOf(materialName), EquipmentSlot.HAND));
+    }
+
+    @Test
+    @DisplayName("Weapon tags mark weapons, trident and mace are always weapons")
+    void tagBasedWeapons() {
+        assertEquals(ItemClassifier.WEAPON,
+                ItemClassifier.classify(Material.NETHERITE_SWORD, EquipmentSlot.HAND, false, true, false, false));
+        assertEquals(ItemClassifier.WEAPON, classify(Material.MACE, EquipmentSlot.HAND));
+        assertEquals(ItemClassifier.WEAPON | ItemClassifier.RANGED, classify(Material.TRIDENT, EquipmentSlot.HAND));
+        assertEquals(ItemClassifier.RANGED, classify(Material.BOW, EquipmentSlot.HAND));
+        assertEquals(ItemClassifier.RANGED, classify(Material.CROSSBOW, EquipmentSlot.HAND));
+    }
+
+    @Test
+    @DisplayName("Food, potions and containers get their categories")
+    void consumablesAndContainers() {
+        assertEquals(ItemClassifier.CONSUMABLE,
+                ItemClassifier.classify(Material.APPLE, EquipmentSlot.HAND, true, false, false, false));
+        assertEquals(ItemClassifier.CONSUMABLE, classify(Material.POTION, EquipmentSlot.HAND));
+        assertEquals(ItemClassifier.CONTAINER,
+                ItemClassifier.classify(Material.SHULKER_BOX, EquipmentSlot.HAND, false, false, true, false));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Non-equipment items are not armor")
+    @ValueSource(strings = { "STONE", "DIRT", "DIAMOND", "APPLE" })
+    void nonEquipmentNotArmor(String materialName) {
+        Material material = Material.valueOf(materialName);
+        assertEquals(0, classify(material, EquipmentSlot.HAND));
+        assertFalse(classifier(material, 0).isArmor(material));
+    }
+}
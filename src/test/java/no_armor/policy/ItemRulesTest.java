@@ -0,0 +1,138 @@
+package no_armor.policy;
+
+import io.papermc.paper.persistence.PersistentDataContainerView;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for compiling item-rules and evaluating them in config order.
+ */
+class ItemRulesTest {
+
+    private static final NamespacedKey SPECIAL = NamespacedKey.fromString("myplugin:special");
+
+    private static Map<String, Object> rule(String material, boolean allowed, Object... conditions) {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("material", material);
+        rule.put("allowed", allowed);
+        for (int i = 0; i < conditions.length; i += 2) {
+            rule.put((String) conditions[i], conditions[i + 1]);
+        }
+        return rule;
+    }
+
+    // Custom model data of the mocked stacks, read without the data component registry
+    private final Map<ItemStack, Float> modelData = new IdentityHashMap<>();
+
+    private ItemRules compile(Map<?, ?>... rules) {
+        Function<ItemStack, Float> reader = modelData::get;
+        return ItemRules.compile(List.of(rules), null, reader);
+    }
+
+    private ItemStack stack(Material material, boolean tagged, Float customModelData) {
+        ItemStack item = mock(ItemStack.class);
+        PersistentDataContainerView container = mock(PersistentDataContainerView.class);
+        when(container.has(SPECIAL)).thenReturn(tagged);
+        when(item.getType()).thenReturn(material);
+        when(item.getPersistentDataContainer()).thenReturn(container);
+        if (customModelData != null) {
+            modelData.put(item, customModelData);
+        }
+        return item;
+    }
+
+    @Test
+    @DisplayName("pdc-key rules match only tagged items")
+    void pdcKeyMatches() {
+        ItemRules rules = compile(rule("diamond_sword", false, "pdc-key", "myplugin:special"));
+
+        assertTrue(rules.hasRules(Material.DIAMOND_SWORD));
+        assertEquals(Boolean.FALSE, rules.evaluate(stack(Material.DIAMOND_SWORD, true, null)));
+        assertNull(rules.evaluate(stack(Material.DIAMOND_SWORD, false, null)));
+        assertNull(rules.evaluate(stack(Material.IRON_SWORD, true, null)));
+    }
+
+    @Test
+    @DisplayName("custom-model-data rules compare the first float")
+    void customModelDataMatches() {
+        ItemRules rules = compile(rule("diamond_sword", false, "custom-model-data", 1001));
+
+        assertEquals(Boolean.FALSE, rules.evaluate(stack(Material.DIAMOND_SWORD, false, 1001f)));
+        assertNull(rules.evaluate(stack(Material.DIAMOND_SWORD, false, 1002f)));
+        assertNull(rules.evaluate(stack(Material.DIAMOND_SWORD, false, null)));
+    }
+
+    @Test
+    @DisplayName("All conditions of a rule must match")
+    void conditionsCombine() {
+        ItemRules rules = compile(rule("diamond_sword", false, "pdc-key", "myplugin:special", "custom-model-data", 7));
+
+        assertEquals(Boolean.FALSE, rules.evaluate(stack(Material.DIAMOND_SWORD, true, 7f)));
+        assertNull(rules.evaluate(stack(Material.DIAMOND_SWORD, true, null)));
+        assertNull(rules.evaluate(stack(Material.DIAMOND_SWORD, false, 7f)));
+    }
+
+    @Test
+    @DisplayName("The first matching rule in config order decides")
+    void firstMatchWins() {
+        ItemRules rules = compile(
+                rule("diamond_sword", true, "custom-model-data", 5),
+                rule("diamond_sword", false, "pdc-key", "myplugin:special"),
+                rule("diamond_sword", true, "pdc-key", "myplugin:special"));
+
+        // First rule does not match, second does before the third is reached
+        assertEquals(Boolean.FALSE, rules.evaluate(stack(Material.DIAMOND_SWORD, true, null)));
+        // First rule matches before the deny rule
+        assertEquals(Boolean.TRUE, rules.evaluate(stack(Material.DIAMOND_SWORD, true, 5f)));
+    }
+
+    @Test
+    @DisplayName("Invalid entries are skipped and valid ones kept")
+    void invalidEntriesSkipped() {
+        ItemRules rules = compile(
+                rule("not_a_real_item", false, "pdc-key", "myplugin:special"),
+                rule("bow", false),
+                rule("crossbow", false, "pdc-key", "not a key!"),
+                rule("diamond_sword", false, "pdc-key", "myplugin:special"));
+
+        assertFalse(rules.hasRules(Material.BOW));
+        assertFalse(rules.hasRules(Material.CROSSBOW));
+        assertTrue(rules.hasRules(Material.DIAMOND_SWORD));
+        assertEquals(Boolean.FALSE, rules.evaluate(stack(Material.DIAMOND_SWORD, true, null)));
+    }
+
+    @Test
+    @DisplayName("Empty list compiles to no rules")
+    void emptyList() {
+        assertSame(ItemRules.NONE, ItemRules.compile(List.of(), null));
+        assertFalse(ItemRules.NONE.hasRules(Material.DIAMOND_SWORD));
+    }
+
+    @Test
+    @DisplayName("Upper-case keys parse independently of the default locale")
+    void keysParseUnderTurkishLocale() {
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            ItemRules rules = compile(rule("diamond_sword", false, "pdc-key", "MYPLUGIN:SPECIAL"));
+
+            assertTrue(rules.hasRules(Material.DIAMOND_SWORD));
+            assertEquals(Boolean.FALSE, rules.evaluate(stack(Material.DIAMOND_SWORD, true, null)));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+}
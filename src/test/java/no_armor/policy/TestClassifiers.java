@@ -0,0 +1,21 @@
+package no_armor.policy;
+
+import org.bukkit.Material;
+
+import java.util.Map;
+
+/**
+ * Builds classifiers from fixed categories for tests outside this package,
+ * since the real table comes from the server's registry.
+ */
+public final class TestClassifiers {
+
+    private TestClassifiers() {
+    }
+
+    public static ItemClassifier of(Map<Material, Integer> categories) {
+        int[] table = new int[Material.values().length];
+        categories.forEach((material, mask) -> table[material.ordinal()] = mask);
+        return new ItemClassifier(table);
+    }
+}